@@ -2,12 +2,19 @@ package com.budgetwise;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.budgetwise.service.RollupCommandRunner;
 
 @SpringBootApplication
 public class BudgetwiseApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BudgetwiseApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(BudgetwiseApplication.class, args);
+		// Maintenance commands end the process with their exit code once the context is closed
+		if (context.getBean(RollupCommandRunner.class).ranCommand()) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -1,8 +1,18 @@
 package com.budgetwise.config;
 
+import com.budgetwise.security.AuthRateLimitProperties;
+import com.budgetwise.security.JwtProperties;
+import com.budgetwise.security.PasswordHashingProperties;
+import com.budgetwise.service.AiResilienceProperties;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties({JwtProperties.class, AiResilienceProperties.class, AuthRateLimitProperties.class,
+        PasswordHashingProperties.class})
 public class AppConfig {
     // Remove passwordEncoder bean, leave this empty or add other beans if needed
 }
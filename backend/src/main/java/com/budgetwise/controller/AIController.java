@@ -1,33 +1,38 @@
 package com.budgetwise.controller;
 
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import com.budgetwise.model.Transaction;
-import com.budgetwise.model.User;
-import com.budgetwise.repository.TransactionRepository;
-import com.budgetwise.repository.UserRepository;
+import com.budgetwise.dto.AdvisorSnapshot;
+import com.budgetwise.service.AdvisorResponseCache;
+import com.budgetwise.service.AdvisorService;
+import com.budgetwise.service.AiUnavailableException;
 import com.budgetwise.service.OpenRouterService;
 
+import reactor.core.publisher.Flux;
+
 @RestController
 @RequestMapping("/api/ai")
 @CrossOrigin(origins = "http://localhost:5173")
 public class AIController {
 
     private final OpenRouterService openRouterService;
-    private final UserRepository userRepository;
-    private final TransactionRepository transactionRepository;
+    private final AdvisorService advisorService;
+    private final AdvisorResponseCache responseCache;
 
     public AIController(OpenRouterService openRouterService,
-                        UserRepository userRepository,
-                        TransactionRepository transactionRepository) {
+                        AdvisorService advisorService,
+                        AdvisorResponseCache responseCache) {
         this.openRouterService = openRouterService;
-        this.userRepository = userRepository;
-        this.transactionRepository = transactionRepository;
+        this.advisorService = advisorService;
+        this.responseCache = responseCache;
     }
 
     @PostMapping("/ask")
@@ -41,35 +46,95 @@ public class AIController {
                     .body(Map.of("error", "Question cannot be empty"));
         }
 
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email);
+        // Short read-only transaction; open-in-view is off, so no connection is held past it
+        Optional<AdvisorSnapshot> snapshot = advisorService.snapshot(authentication.getName());
 
-        if (user == null) {
+        if (snapshot.isEmpty()) {
             return ResponseEntity.status(404)
                     .body(Map.of("error", "User not found"));
         }
 
-        List<Transaction> transactions = transactionRepository.findByUserEmail(user.getEmail());
+        AdvisorSnapshot figures = snapshot.get();
+        String fingerprint = figures.fingerprint();
+
+        String cached = responseCache.get(figures.email(), message, fingerprint);
+        if (cached != null) {
+            return ResponseEntity.ok(Map.of("response", cached));
+        }
+
+        String aiResponse;
+        try {
+            aiResponse = openRouterService.askOpenRouter(buildPrompt(message, figures));
+        } catch (AiUnavailableException e) {
+            // Refused before anything was sent; tell the client when to come back
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                    .body(Map.of("error", e.getMessage()));
+        }
+
+        // Fallback text means the provider failed; asking again may succeed
+        if (!OpenRouterService.FALLBACK_RESPONSE.equals(aiResponse)) {
+            responseCache.put(figures.email(), message, fingerprint, aiResponse);
+        }
+
+        return ResponseEntity.ok(Map.of("response", aiResponse));
+    }
+
+    // Relays the answer token by token; a client disconnect cancels the upstream call
+    @PostMapping("/ask/stream")
+    public ResponseEntity<?> chatStream(@RequestBody Map<String, String> request,
+                                        Authentication authentication) {
+
+        String message = request.get("question");
+
+        if (message == null || message.trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Question cannot be empty"));
+        }
 
-        // --- Short Dashboard summary for AI prompt ---
-        double totalIncome = transactions.stream()
-                .filter(t -> "income".equals(t.getType()) && !t.isReserved())
-                .mapToDouble(t -> t.getAmount()).sum();
+        // The figures are read here so no database work happens on the streaming thread
+        Optional<AdvisorSnapshot> snapshot = advisorService.snapshot(authentication.getName());
 
-        double reservedSavings = transactions.stream()
-                .filter(t -> "income".equals(t.getType()) && t.isReserved())
-                .mapToDouble(t -> t.getAmount()).sum();
+        if (snapshot.isEmpty()) {
+            return ResponseEntity.status(404)
+                    .body(Map.of("error", "User not found"));
+        }
 
-        double totalExpenses = transactions.stream()
-                .filter(t -> "expense".equals(t.getType()))
-                .mapToDouble(t -> t.getAmount()).sum() +
-                transactions.stream()
-                .filter(t -> "income".equals(t.getType()) && t.isReserved())
-                .mapToDouble(t -> t.getAmount()).sum();
+        AdvisorSnapshot figures = snapshot.get();
+        String fingerprint = figures.fingerprint();
+        String email = figures.email();
+
+        String cached = responseCache.get(email, message, fingerprint);
+        if (cached != null) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(Flux.just(
+                            ServerSentEvent.builder(cached).event("token").build(),
+                            ServerSentEvent.builder("").event("done").build()));
+        }
 
-        double totalBalance = totalIncome - totalExpenses;
+        // Only an answer that streamed to the end is cached
+        StringBuilder answer = new StringBuilder();
+
+        Flux<ServerSentEvent<String>> events = openRouterService.streamOpenRouter(buildPrompt(message, figures))
+                .doOnNext(answer::append)
+                .doOnComplete(() -> responseCache.put(email, message, fingerprint, answer.toString()))
+                .map(token -> ServerSentEvent.builder(token).event("token").build())
+                .concatWith(Flux.just(ServerSentEvent.builder("").event("done").build()))
+                .onErrorResume(e -> Flux.just(ServerSentEvent
+                        .builder(e instanceof AiUnavailableException
+                                ? e.getMessage()
+                                : "Sorry, AI service is temporarily unavailable.")
+                        .event("error")
+                        .build()));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(events);
+    }
 
-        String prompt = """
+    private String buildPrompt(String message, AdvisorSnapshot figures) {
+        return """
 User: %s
 Dashboard Summary:
 - Total Income: ₹%.2f
@@ -77,10 +142,7 @@ Dashboard Summary:
 - Total Expenses: ₹%.2f
 - Total Balance: ₹%.2f
 Instructions: Provide short, actionable, friendly advice based on this data.
-""".formatted(message, totalIncome, reservedSavings, totalExpenses, totalBalance);
-
-        String aiResponse = openRouterService.askOpenRouter(prompt);
-
-        return ResponseEntity.ok(Map.of("response", aiResponse));
+""".formatted(message, figures.totalIncome(), figures.reservedSavings(),
+                figures.totalExpenses(), figures.totalBalance());
     }
-}
\ No newline at end of file
+}
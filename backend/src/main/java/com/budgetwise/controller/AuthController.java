@@ -2,17 +2,23 @@ package com.budgetwise.controller;
 
 import com.budgetwise.model.User;
 import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.AuthRateLimiter;
 import com.budgetwise.security.JwtUtil;
+import com.budgetwise.security.PasswordHashingBusyException;
 import com.budgetwise.service.OtpService;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.Map;
 
 @RestController
@@ -22,17 +28,23 @@ public class AuthController {
 
     @Autowired private UserRepository userRepository;
     @Autowired private OtpService otpService;
-    @Autowired private BCryptPasswordEncoder passwordEncoder;
+    @Autowired private PasswordEncoder passwordEncoder;
     @Autowired private AuthenticationManager authenticationManager;
     @Autowired private JwtUtil jwtUtil;
+    @Autowired private AuthRateLimiter rateLimiter;
 
     // ================= REGISTER =================
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody User request) {
+    public ResponseEntity<?> register(@RequestBody User request, HttpServletRequest http) {
 
         if (request == null)
             return ResponseEntity.badRequest().body("Invalid request");
 
+        Duration retryAfter = rateLimiter.acquire(AuthRateLimiter.Endpoint.REGISTER,
+                http.getRemoteAddr(), request.getEmail());
+        if (retryAfter != null)
+            return tooManyRequests(retryAfter);
+
         String username = request.getUsername();
         String email = request.getEmail();
         String password = request.getPassword();
@@ -48,7 +60,11 @@ public class AuthController {
         User user = new User();
         user.setUsername(username.trim());
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        try {
+            user.setPassword(passwordEncoder.encode(password));
+        } catch (PasswordHashingBusyException e) {
+            return serviceBusy(e);
+        }
         user.setVerified(false);
         user.setLoggedIn(false);
 
@@ -63,7 +79,12 @@ public class AuthController {
     // ================= VERIFY OTP =================
     @PostMapping("/verify-otp")
     public ResponseEntity<?> verifyOtp(@RequestParam String email,
-                                       @RequestParam String otpInput) {
+                                       @RequestParam String otpInput,
+                                       HttpServletRequest http) {
+
+        Duration retryAfter = rateLimiter.acquire(AuthRateLimiter.Endpoint.OTP, http.getRemoteAddr(), email);
+        if (retryAfter != null)
+            return tooManyRequests(retryAfter);
 
         email = email.toLowerCase().trim();
 
@@ -87,7 +108,11 @@ public class AuthController {
 
     // ================= RESEND OTP =================
     @PostMapping("/resend-otp")
-    public ResponseEntity<?> resendOtp(@RequestParam String email) {
+    public ResponseEntity<?> resendOtp(@RequestParam String email, HttpServletRequest http) {
+
+        Duration retryAfter = rateLimiter.acquire(AuthRateLimiter.Endpoint.OTP, http.getRemoteAddr(), email);
+        if (retryAfter != null)
+            return tooManyRequests(retryAfter);
 
         email = email.toLowerCase().trim();
 
@@ -104,11 +129,17 @@ public class AuthController {
 
     // ================= LOGIN =================
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> data) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> data, HttpServletRequest http) {
 
         String email = data.get("email");
         String password = data.get("password");
 
+        // Refused before the user lookup and the BCrypt check; the email token comes back
+        // below unless the password turns out wrong
+        Duration retryAfter = rateLimiter.acquire(AuthRateLimiter.Endpoint.LOGIN, http.getRemoteAddr(), email);
+        if (retryAfter != null)
+            return tooManyRequests(retryAfter);
+
         if (email == null || password == null)
             return ResponseEntity.badRequest()
                     .body("Email and password required");
@@ -131,8 +162,9 @@ public class AuthController {
 
             String token = jwtUtil.generateToken(email);
 
-            user.setLoggedIn(true);
-            userRepository.save(user);
+            // Not save(user): authenticate may have just rehashed the stored password
+            userRepository.markLoggedIn(email);
+            rateLimiter.refund(AuthRateLimiter.Endpoint.LOGIN, email);
 
             return ResponseEntity.ok(Map.of(
                     "message", "Login successful",
@@ -140,12 +172,28 @@ public class AuthController {
                     "username", user.getUsername()
             ));
 
+        } catch (PasswordHashingBusyException e) {
+            // The password was never checked
+            rateLimiter.refund(AuthRateLimiter.Endpoint.LOGIN, email);
+            return serviceBusy(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Invalid email or password");
         }
     }
 
+    private static ResponseEntity<?> tooManyRequests(Duration retryAfter) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter.toSeconds()))
+                .body("Too many attempts. Please try again later.");
+    }
+
+    private static ResponseEntity<?> serviceBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+
     // ================= LOGOUT =================
     @PostMapping("/logout")
     public ResponseEntity<?> logout() {
@@ -1,24 +1,89 @@
 package com.budgetwise.controller;
 
+import com.budgetwise.dto.ChangeCursor;
+import com.budgetwise.dto.ImportProgress;
+import com.budgetwise.dto.TransactionBatch;
+import com.budgetwise.dto.TransactionBatchResult;
+import com.budgetwise.dto.TransactionFilter;
 import com.budgetwise.model.Transaction;
+import com.budgetwise.service.LedgerChangeNotifier;
+import com.budgetwise.service.LedgerVersionService;
+import com.budgetwise.service.StatementReader;
+import com.budgetwise.service.TransactionExportService;
+import com.budgetwise.service.TransactionImportService;
 import com.budgetwise.service.TransactionService;
+import com.budgetwise.service.TransactionSyncService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/transactions")
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class TransactionController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    // Browsers may keep the body but must revalidate it with If-None-Match every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TransactionService transactionService;
+    private final TransactionImportService importService;
+    private final TransactionExportService exportService;
+    private final LedgerVersionService ledgerVersions;
+    private final TransactionSyncService syncService;
+    private final LedgerChangeNotifier changeNotifier;
+    private final ObjectMapper objectMapper;
+    private final Duration exportTimeout;
+    private final Duration eventsTimeout;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionImportService importService,
+                                 TransactionExportService exportService,
+                                 LedgerVersionService ledgerVersions,
+                                 TransactionSyncService syncService,
+                                 LedgerChangeNotifier changeNotifier,
+                                 ObjectMapper objectMapper,
+                                 @Value("${budgetwise.export.timeout:30m}") Duration exportTimeout,
+                                 @Value("${budgetwise.ledger.events.timeout:30m}") Duration eventsTimeout) {
         this.transactionService = transactionService;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.ledgerVersions = ledgerVersions;
+        this.syncService = syncService;
+        this.changeNotifier = changeNotifier;
+        this.objectMapper = objectMapper;
+        this.exportTimeout = exportTimeout;
+        this.eventsTimeout = eventsTimeout;
     }
 
     // -------------------
@@ -39,23 +104,261 @@ public class TransactionController {
                 .body(transactionService.add(transaction));
     }
 
+    // -------------------
+    // BATCH MUTATIONS
+    // -------------------
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(
+            @RequestBody TransactionBatch batch,
+            Authentication auth) {
+
+        if (batch == null || batch.operations() == null || batch.operations().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "operations must not be empty"));
+        }
+        if (batch.operations().size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "at most " + MAX_BATCH_SIZE + " operations per batch"));
+        }
+
+        try {
+            return ResponseEntity.ok(new TransactionBatchResult(
+                    transactionService.applyBatch(auth.getName(), batch.operations())));
+        } catch (OptimisticLockingFailureException e) {
+            // A row changed between loading and flushing the batch; nothing was applied
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "a transaction was changed by another request, retry the batch"));
+        }
+    }
+
+    // -------------------
+    // IMPORT STATEMENT
+    // -------------------
+    // Answers with one NDJSON progress line per committed batch, then the final report
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public void importStatement(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            Authentication auth,
+            HttpServletResponse response) throws IOException {
+
+        StatementReader.Format statementFormat;
+        try {
+            statementFormat = StatementReader.Format.of(format, file.getOriginalFilename());
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of("error", e.getMessage()));
+            return;
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ServletOutputStream out = response.getOutputStream();
+
+        try (StatementReader reader = StatementReader.open(statementFormat, file.getInputStream())) {
+            importService.importStatement(auth.getName(), reader, progress -> writeLine(out, progress));
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away mid-import
+        }
+    }
+
+    private void writeLine(ServletOutputStream out, ImportProgress progress) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(progress));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // -------------------
+    // EXPORT LEDGER
+    // -------------------
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication auth,
+            HttpServletRequest request) throws IOException {
+
+        TransactionExportService.Format exportFormat;
+        try {
+            exportFormat = TransactionExportService.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            // The return type must stay StreamingResponseBody, so the error body is pre-rendered
+            byte[] error = objectMapper.writeValueAsBytes(Map.of("error", e.getMessage()));
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(error));
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        String email = auth.getName();
+
+        StreamingResponseBody body = out -> {
+            // A large ledger can take longer than the default async timeout meant for AI streams
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().setTimeout(exportTimeout.toMillis());
+            }
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.export(email, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(email, exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.contentType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + exportFormat.extension())
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        return response.body(body);
+    }
+
     // -------------------
     // GET ALL TRANSACTIONS
     // -------------------
     @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions(Authentication auth) {
+    public ResponseEntity<List<Transaction>> getAllTransactions(Authentication auth, WebRequest request) {
+
+        String email = auth.getName();
+        return conditional(ledgerVersions.etag(email, "all"), request,
+                () -> transactionService.getByUserEmail(email));
+    }
+
+    // -------------------
+    // GET PAGE (KEYSET)
+    // -------------------
+    @GetMapping("/page")
+    public ResponseEntity<?> getPage(
+            TransactionFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication auth,
+            WebRequest request) {
 
-        return ResponseEntity.ok(
-                transactionService.getByUserEmail(auth.getName())
-        );
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        try {
+            String email = auth.getName();
+            String etag = ledgerVersions.etag(email, "page|" + filter + "|" + cursor + "|" + limit);
+            return conditional(etag, request,
+                    () -> transactionService.getPage(email, filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // -------------------
+    // DELTA SYNC
+    // -------------------
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(
+            @RequestParam(required = false) String since,
+            Authentication auth) {
+
+        ChangeCursor cursor = null;
+        if (since != null && !since.isBlank()) {
+            try {
+                cursor = ChangeCursor.decode(since);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", e.getMessage()));
+            }
+            if (syncService.isExpired(cursor)) {
+                return ResponseEntity.status(HttpStatus.GONE)
+                        .body(Map.of("error", "cursor expired; sync again without since"));
+            }
+        }
+
+        return ResponseEntity.ok(syncService.changesSince(auth.getName(), cursor));
+    }
+
+    // -------------------
+    // CHANGE EVENTS
+    // -------------------
+    // Long-lived, and independent of the async request timeout meant for AI
+    // streams: the stream ends after its own timeout and the client's
+    // reconnect gets a fresh "ready" event to catch up from
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> events(Authentication auth) {
+        String email = auth.getName();
+        Flux<ServerSentEvent<String>> events =
+                changeNotifier.subscribe(email, () -> ledgerVersions.current(email));
+
+        if (events == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(events.take(eventsTimeout));
+    }
+
+    // -------------------
+    // DASHBOARD SUMMARY
+    // -------------------
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String granularity,
+            Authentication auth,
+            WebRequest request) {
+
+        if (!"month".equals(granularity) && !"year".equals(granularity)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "granularity must be month or year"));
+        }
+
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "from must not be after to"));
+        }
+
+        // Reserved savings settle by date, so the same ledger summarises differently tomorrow
+        String email = auth.getName();
+        String etag = ledgerVersions.etag(email,
+                "summary|" + from + "|" + to + "|" + granularity + "|" + LocalDate.now());
+
+        return conditional(etag, request,
+                () -> transactionService.getSummary(email, from, to, granularity));
+    }
+
+    // Answers 304 from the ledger version alone; the body is only built when the ETag changed.
+    // Reading the version first means a concurrent write can only make the ETag older, never newer.
+    private <T> ResponseEntity<T> conditional(String etag, WebRequest request, Supplier<T> body) {
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.AUTHORIZATION)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.AUTHORIZATION);
+        if (etag != null) ok.eTag(etag);
+        return ok.body(body.get());
     }
 
     // -------------------
     // GET BY ID
     // -------------------
     @GetMapping("/{id}")
-    public ResponseEntity<Transaction> getById(@PathVariable Long id) {
-        Optional<Transaction> t = transactionService.getById(id);
+    public ResponseEntity<Transaction> getById(@PathVariable Long id, Authentication auth) {
+        Optional<Transaction> t = transactionService.getById(id, auth.getName());
         return t.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -63,8 +366,9 @@ public class TransactionController {
     // -------------------
     // UPDATE TRANSACTION
     // -------------------
+    // The body's version must be the one the client read; another device's edit since then is a 409
     @PutMapping("/{id}")
-    public ResponseEntity<Transaction> updateTransaction(
+    public ResponseEntity<?> updateTransaction(
             @PathVariable Long id,
             @RequestBody Transaction transaction,
             Authentication auth) {
@@ -76,18 +380,35 @@ public class TransactionController {
             transaction.setType("reserved");
         }
 
-        return transactionService.update(transaction)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return transactionService.update(transaction)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(e);
+        }
     }
 
     // -------------------
     // DELETE TRANSACTION
     // -------------------
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
-        return transactionService.delete(id)
-                ? ResponseEntity.noContent().build()
-                : ResponseEntity.notFound().build();
+    public ResponseEntity<?> deleteTransaction(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long version,
+            Authentication auth) {
+
+        try {
+            return transactionService.delete(id, auth.getName(), version)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(e);
+        }
+    }
+
+    private static ResponseEntity<?> conflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage()));
     }
-}
\ No newline at end of file
+}
@@ -3,10 +3,13 @@ package com.budgetwise.controller;
 import com.budgetwise.model.User;
 import com.budgetwise.repository.UserRepository;
 import com.budgetwise.security.JwtUtil;
+import com.budgetwise.security.PasswordHashingBusyException;
+import com.budgetwise.security.PrincipalCache;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -23,7 +26,10 @@ public class UsersController {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PrincipalCache principalCache;
 
     // ================= CHANGE PASSWORD =================
     @PostMapping("/change-password")
@@ -46,14 +52,23 @@ public class UsersController {
     String currentPassword = data.get("currentPassword");
     String newPassword = data.get("newPassword");
 
-    if(!passwordEncoder.matches(currentPassword, user.getPassword()))
-        return ResponseEntity.badRequest().body(Map.of(
-                "message","Current password incorrect"
-        ));
-
-    user.setPassword(passwordEncoder.encode(newPassword));
+    try {
+        if(!passwordEncoder.matches(currentPassword, user.getPassword()))
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message","Current password incorrect"
+            ));
+
+        user.setPassword(passwordEncoder.encode(newPassword));
+    } catch (PasswordHashingBusyException e) {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", e.getMessage()));
+    }
     userRepository.save(user);
 
+    // Cached principals still carry the old password hash
+    principalCache.invalidateUser(user.getEmail());
+
     return ResponseEntity.ok(Map.of(
             "message","Password updated successfully"
     ));
@@ -0,0 +1,17 @@
+package com.budgetwise.dto;
+
+/**
+ * Detached copy of the dashboard figures the AI advisor prompt is built from.
+ * Holding no entities, it can outlive the read-only transaction that made it.
+ */
+public record AdvisorSnapshot(String email,
+                              double totalIncome,
+                              double reservedSavings,
+                              double totalExpenses,
+                              double totalBalance) {
+
+    // Answers cached under one fingerprint stay valid while these figures do
+    public String fingerprint() {
+        return "%.2f|%.2f|%.2f|%.2f".formatted(totalIncome, reservedSavings, totalExpenses, totalBalance);
+    }
+}
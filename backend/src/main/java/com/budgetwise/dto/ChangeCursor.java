@@ -0,0 +1,32 @@
+package com.budgetwise.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Delta-sync position: the ledger version the client has caught up to and
+ * when that cursor was handed out, encoded as an opaque URL-safe string.
+ * The issue time lets the server tell when tombstones the client still
+ * needs may already have been purged.
+ */
+public record ChangeCursor(long version, Instant issuedAt) {
+
+    public String encode() {
+        String raw = version + ":" + issuedAt.getEpochSecond();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new ChangeCursor(
+                    Long.parseLong(raw.substring(0, sep)),
+                    Instant.ofEpochSecond(Long.parseLong(raw.substring(sep + 1))));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.budgetwise.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Body of an OpenAI-style chat completion call. {@code stream} is left out of
+ * the JSON unless set.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatCompletionRequest(
+        String model,
+        List<Message> messages,
+        double temperature,
+        @JsonProperty("max_tokens") int maxTokens,
+        Boolean stream) {
+
+    public record Message(String role, String content) {}
+
+    public ChatCompletionRequest streaming() {
+        return new ChatCompletionRequest(model, messages, temperature, maxTokens, true);
+    }
+}
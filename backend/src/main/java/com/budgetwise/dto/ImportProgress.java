@@ -0,0 +1,17 @@
+package com.budgetwise.dto;
+
+import java.util.List;
+
+/**
+ * One line of the NDJSON import report. "running" lines carry counts only;
+ * the closing "done" (or "aborted") line also lists the rejected rows.
+ */
+public record ImportProgress(String status,
+                             long processed,
+                             long imported,
+                             long duplicates,
+                             long failed,
+                             List<RowError> errors) {
+
+    public record RowError(long line, String message) {}
+}
@@ -0,0 +1,17 @@
+package com.budgetwise.dto;
+
+import com.budgetwise.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/transactions/batch. Each operation is "create" (with a
+ * transaction), "update" (id and the full new transaction) or "delete" (id).
+ * Updates and deletes may name the row version the client last read, either
+ * as {@code version} or inside the transaction; a row at another version is
+ * reported with status 409.
+ */
+public record TransactionBatch(List<Operation> operations) {
+
+    public record Operation(String op, Long id, Transaction transaction, Long version) {}
+}
@@ -0,0 +1,12 @@
+package com.budgetwise.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of every operation in a batch, in request order. {@code status}
+ * uses the HTTP code the single-item endpoint would have returned.
+ */
+public record TransactionBatchResult(List<Item> results) {
+
+    public record Item(int index, String op, Long id, int status, String error) {}
+}
@@ -0,0 +1,13 @@
+package com.budgetwise.dto;
+
+import com.budgetwise.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Everything that changed after the client's cursor: rows created or
+ * updated since, and ids of rows deleted since. Without a cursor,
+ * {@code upserts} is the full ledger. Pass {@code cursor} as {@code since}
+ * on the next call.
+ */
+public record TransactionChanges(String cursor, List<Transaction> upserts, List<Long> deleted) {}
@@ -0,0 +1,17 @@
+package com.budgetwise.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional server-side filters for the paginated listing; any null
+ * component is ignored.
+ */
+public record TransactionFilter(
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        String type,
+        String category,
+        Double minAmount,
+        Double maxAmount) {}
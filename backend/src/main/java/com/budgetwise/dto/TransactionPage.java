@@ -0,0 +1,11 @@
+package com.budgetwise.dto;
+
+import com.budgetwise.model.Transaction;
+
+import java.util.List;
+
+/**
+ * One page of the keyset-paginated listing. {@code nextCursor} is null
+ * once the last page has been reached.
+ */
+public record TransactionPage(List<Transaction> items, String nextCursor) {}
@@ -0,0 +1,25 @@
+package com.budgetwise.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dashboard figures computed server-side from grouped aggregate queries,
+ * so the client no longer has to download and reduce the full ledger.
+ */
+public record TransactionSummary(
+        LocalDate from,
+        LocalDate to,
+        String granularity,
+        double totalIncome,
+        double totalExpenses,
+        double reservedSavings,
+        double totalBalance,
+        List<CategoryTotal> categories,
+        List<PeriodTotal> periods) {
+
+    public record CategoryTotal(String category, double total) {}
+
+    // period is "yyyy-MM" for month granularity, "yyyy" for year
+    public record PeriodTotal(String period, double income, double expenses, double balance) {}
+}
@@ -0,0 +1,26 @@
+package com.budgetwise.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Dictionary of category names; transactions store the id. Rows are only
+ * ever added, through CategoryDictionary.
+ */
+@Entity
+@Table(name = "categories", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_categories_name", columnNames = "name")
+})
+public class Category {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Getters
+    public Long getId() { return id; }
+
+    public String getName() { return name; }
+}
@@ -0,0 +1,29 @@
+package com.budgetwise.model;
+
+import com.budgetwise.repository.CategoryDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a category name as its id in the categories table. Created by
+ * Hibernate through Spring, which injects the dictionary.
+ */
+@Converter
+public class CategoryConverter implements AttributeConverter<String, Long> {
+
+    private final CategoryDictionary dictionary;
+
+    public CategoryConverter(CategoryDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Long convertToDatabaseColumn(String name) {
+        return dictionary.idOf(name);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long id) {
+        return dictionary.nameOf(id);
+    }
+}
@@ -0,0 +1,63 @@
+package com.budgetwise.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Per-user monthly totals keyed by (user, period, type, category), kept in
+ * step with the transactions table by TransactionService so reports can
+ * read O(months) rows instead of scanning the whole ledger.
+ */
+@Entity
+@Table(name = "monthly_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_monthly_rollup_key",
+                columnNames = {"user_email", "period", "type", "category"})
+})
+public class MonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    // yyyy-MM
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    // income, expense, reserved (reserved income is rolled up as "reserved")
+    @Column(nullable = false)
+    private String type;
+
+    // empty string when the transaction has no category
+    @Column(nullable = false)
+    private String category;
+
+    // Minor units, like transactions.amount_cents, so totals stay exact
+    @Column(name = "total_cents", nullable = false)
+    private long totalCents;
+
+    @Column(name = "tx_count", nullable = false)
+    private long txCount;
+
+    // Getters & Setters
+    public Long getId() { return id; }
+
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public long getTotalCents() { return totalCents; }
+    public void setTotalCents(long totalCents) { this.totalCents = totalCents; }
+
+    public long getTxCount() { return txCount; }
+    public void setTxCount(long txCount) { this.txCount = txCount; }
+}
@@ -4,6 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        // Lookups and invalidation always filter on email + used
+        @Index(name = "idx_otp_email_used", columnList = "email, used"),
+        @Index(name = "idx_otp_expiry_time", columnList = "expiryTime")
+})
 public class OtpVerification {
 
     @Id
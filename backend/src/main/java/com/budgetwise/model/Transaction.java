@@ -1,35 +1,75 @@
 package com.budgetwise.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Serves the (date, id) keyset listing and the per-user aggregates
+        @Index(name = "idx_transactions_user_date_id", columnList = "user_id, date, id"),
+        // Serves the delta sync: rows changed after a client's cursor
+        @Index(name = "idx_transactions_user_change", columnList = "user_id, change_version"),
+        // Serves the scheduled maturation of due reserved rows
+        @Index(name = "idx_transactions_type_date_id", columnList = "type_code, date, id")
+})
 public class Transaction {
 
+    // Ids handed out per round trip to the id_sequences table
+    public static final int ID_ALLOCATION_SIZE = 500;
+
+    // IDENTITY would force one INSERT per row; a pooled table generator lets Hibernate batch them
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_ids")
+    @TableGenerator(name = "transaction_ids",
+            table = "id_sequences",
+            pkColumnName = "sequence_name",
+            valueColumnName = "next_val",
+            pkColumnValue = "transactions",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private LocalDate date;
 
-    // income, expense, reserved
-    private String type;
+    // income, expense, reserved; stored as a one-byte code, see TransactionType
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "type_code")
+    private TransactionType type;
 
     private String title;
 
+    // Name here, id of the categories dictionary row in the table
+    @Convert(converter = CategoryConverter.class)
+    @Column(name = "category_id")
     private String category;
 
-    private Double amount;
+    // Minor units, so sums are exact; the API still speaks major units
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
 
     @Column(length = 500)
     private String description;
 
-    @Column(name = "user_email")
+    // Email here, users.id in the table; services and the JWT address owners by email
+    @Convert(converter = UserIdConverter.class)
+    @Column(name = "user_id")
     private String userEmail;
 
+    // The same column for queries that join on the id; written through userEmail
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private Long userId;
+
     private boolean reserved = false;  // ✅ Reserved flag
 
+    // Owner's ledger version at the last write; see LedgerVersionService
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion = 0;
+
+    // Row version for optimistic locking; clients send back the one they read when editing
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Constructors
     public Transaction() {}
 
@@ -38,10 +78,10 @@ public class Transaction {
                        String description, String userEmail,
                        boolean reserved) {
         this.date = date;
-        this.type = type;
+        this.type = TransactionType.fromValue(type);
         this.title = title;
         this.category = category;
-        this.amount = amount;
+        setAmount(amount);
         this.description = description;
         this.userEmail = userEmail;
         this.reserved = reserved;
@@ -54,8 +94,8 @@ public class Transaction {
     public LocalDate getDate() { return date; }
     public void setDate(LocalDate date) { this.date = date; }
 
-    public String getType() { return type; }
-    public void setType(String type) { this.type = type; }
+    public String getType() { return TransactionType.toValue(type); }
+    public void setType(String type) { this.type = TransactionType.fromValue(type); }
 
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
@@ -63,8 +103,12 @@ public class Transaction {
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
 
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Double getAmount() { return amountCents / 100.0; }
+    public void setAmount(Double amount) { this.amountCents = amount != null ? Math.round(amount * 100) : 0; }
+
+    @JsonIgnore
+    public long getAmountCents() { return amountCents; }
+    public void setAmountCents(long amountCents) { this.amountCents = amountCents; }
 
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
@@ -74,4 +118,10 @@ public class Transaction {
 
     public boolean isReserved() { return reserved; }
     public void setReserved(boolean reserved) { this.reserved = reserved; }
+
+    public long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(long changeVersion) { this.changeVersion = changeVersion; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,47 @@
+package com.budgetwise.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind by a deleted transaction so delta-sync clients learn
+ * about the deletion. Purged after the sync retention period.
+ */
+@Entity
+@Table(name = "transaction_tombstones", indexes = {
+        @Index(name = "idx_tombstones_user_change", columnList = "user_email, change_version"),
+        @Index(name = "idx_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class TransactionTombstone {
+
+    // Id of the deleted transaction; ids are never reused
+    @Id
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public TransactionTombstone() {}
+
+    public TransactionTombstone(Long transactionId, String userEmail, long changeVersion, LocalDateTime deletedAt) {
+        this.transactionId = transactionId;
+        this.userEmail = userEmail;
+        this.changeVersion = changeVersion;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getTransactionId() { return transactionId; }
+
+    public String getUserEmail() { return userEmail; }
+
+    public long getChangeVersion() { return changeVersion; }
+
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+}
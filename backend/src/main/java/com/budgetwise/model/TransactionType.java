@@ -0,0 +1,32 @@
+package com.budgetwise.model;
+
+import java.util.Locale;
+
+/**
+ * Kind of a transaction. Stored as a one-byte code in transactions.type_code;
+ * the ordinal is the code, so new values go at the end and existing ones are
+ * never reordered. The API and the services use the lower-case value.
+ */
+public enum TransactionType {
+    INCOME,
+    EXPENSE,
+    RESERVED;
+
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static String toValue(TransactionType type) {
+        return type != null ? type.value() : null;
+    }
+
+    public static TransactionType fromValue(String value) {
+        if (value == null) return null;
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "income" -> INCOME;
+            case "expense" -> EXPENSE;
+            case "reserved" -> RESERVED;
+            default -> throw new IllegalArgumentException("Unknown transaction type: " + value);
+        };
+    }
+}
@@ -30,6 +30,11 @@ public class User {
 
     private LocalDateTime otpGeneratedTime;
 
+    // Bumped by UserRepository.bumpLedgerVersion on every ledger change; entity
+    // saves never write it, so a stale User can't roll the version back
+    @Column(name = "ledger_version", nullable = false, updatable = false)
+    private long ledgerVersion = 0;
+
     // ===== Getters & Setters =====
 
     public Long getId() {
@@ -91,4 +96,8 @@ public class User {
     public void setOtpGeneratedTime(LocalDateTime otpGeneratedTime) {
         this.otpGeneratedTime = otpGeneratedTime;
     }
+
+    public long getLedgerVersion() {
+        return ledgerVersion;
+    }
 }
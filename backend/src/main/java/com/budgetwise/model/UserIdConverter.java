@@ -0,0 +1,34 @@
+package com.budgetwise.model;
+
+import com.budgetwise.repository.UserIdDirectory;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an owner's email as their users.id. An email without an account
+ * has no id; writing such a row fails rather than storing it without an
+ * owner, where no one could ever read it again. Created by Hibernate through
+ * Spring, which injects the directory.
+ */
+@Converter
+public class UserIdConverter implements AttributeConverter<String, Long> {
+
+    private final UserIdDirectory directory;
+
+    public UserIdConverter(UserIdDirectory directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Long convertToDatabaseColumn(String email) {
+        if (email == null) return null;
+        Long id = directory.idOf(email);
+        if (id == null) throw new IllegalArgumentException("No account for transaction owner " + email);
+        return id;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long id) {
+        return directory.emailOf(id);
+    }
+}
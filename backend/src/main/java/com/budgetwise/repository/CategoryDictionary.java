@@ -0,0 +1,133 @@
+package com.budgetwise.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory view of the categories table, used to store category names as
+ * ids. The whole table is read on first use and both directions are cached
+ * for the life of the process; the table only grows and its rows never
+ * change.
+ *
+ * Misses go through the JdbcTemplate, so inside a transaction they run on
+ * the caller's connection instead of taking a second one from the pool. A
+ * category added by a transaction is only shared once that transaction
+ * commits; until then only the transaction itself sees it, and a rollback
+ * forgets it.
+ */
+@Component
+public class CategoryDictionary {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public CategoryDictionary(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Id of the category, or null when no row has used that name yet. */
+    public Long find(String name) {
+        if (name == null) return null;
+        load();
+        Long id = ids.get(name);
+        if (id != null) return id;
+
+        Map<String, Long> added = addedHere();
+        if (added != null && added.containsKey(name)) return added.get(name);
+        return remember(name, single(jdbcTemplate.queryForList(
+                "select id from categories where name = ?", Long.class, name)));
+    }
+
+    /** Id of the category, adding it to the dictionary on first use. */
+    public Long idOf(String name) {
+        Long id = find(name);
+        if (id != null || name == null) return id;
+
+        try {
+            jdbcTemplate.update("insert into categories (name) values (?)", name);
+        } catch (DuplicateKeyException e) {
+            // Another writer added it first; a locking read sees its row even from an older snapshot
+            return remember(name, jdbcTemplate.queryForObject(
+                    "select id from categories where name = ? for update", Long.class, name));
+        }
+        id = jdbcTemplate.queryForObject("select id from categories where name = ?", Long.class, name);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return remember(name, id);
+        addedHereOrBind().put(name, id);
+        return id;
+    }
+
+    public String nameOf(Long id) {
+        if (id == null) return null;
+        load();
+        String name = names.get(id);
+        if (name != null) return name;
+
+        Map<String, Long> added = addedHere();
+        if (added != null) {
+            for (Map.Entry<String, Long> e : added.entrySet()) {
+                if (e.getValue().equals(id)) return e.getKey();
+            }
+        }
+        name = single(jdbcTemplate.queryForList("select name from categories where id = ?", String.class, id));
+        if (name != null) names.putIfAbsent(id, name);
+        return name;
+    }
+
+    private void load() {
+        if (loaded) return;
+        jdbcTemplate.query("select id, name from categories",
+                rs -> { remember(rs.getString(2), rs.getLong(1)); });
+        loaded = true;
+    }
+
+    // -------------------
+    // CATEGORIES ADDED BY THE CURRENT TRANSACTION
+    // -------------------
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> addedHere() {
+        return (Map<String, Long>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private Map<String, Long> addedHereOrBind() {
+        Map<String, Long> added = addedHere();
+        if (added != null) return added;
+
+        Map<String, Long> fresh = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, fresh);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                fresh.forEach(CategoryDictionary.this::remember);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CategoryDictionary.this);
+            }
+        });
+        return fresh;
+    }
+
+    private static <T> T single(List<T> rows) {
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private Long remember(String name, Long id) {
+        if (id != null) {
+            ids.putIfAbsent(name, id);
+            names.putIfAbsent(id, name);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,56 @@
+package com.budgetwise.repository;
+
+import com.budgetwise.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("""
+            select o.id from EmailOutbox o
+            where o.status = :status and o.nextAttemptAt <= :now
+            order by o.id
+            """)
+    List<Long> findDueIds(@Param("status") EmailOutbox.Status status,
+                          @Param("now") LocalDateTime now,
+                          Pageable batch);
+
+    // Only rows still PENDING are claimed, so two pollers never send the same mail
+    @Modifying
+    @Query("""
+            update EmailOutbox o
+            set o.status = :to, o.claimToken = :token, o.claimedAt = :now
+            where o.id in :ids and o.status = :from
+            """)
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("now") LocalDateTime now,
+              @Param("from") EmailOutbox.Status from,
+              @Param("to") EmailOutbox.Status to);
+
+    List<EmailOutbox> findByClaimToken(String claimToken);
+
+    // Hands rows claimed by a worker that died back to the queue
+    @Modifying
+    @Query("""
+            update EmailOutbox o
+            set o.status = :to, o.claimToken = null
+            where o.status = :from and o.claimedAt < :staleBefore
+            """)
+    int releaseStale(@Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("from") EmailOutbox.Status from,
+                     @Param("to") EmailOutbox.Status to);
+
+    // Ids of delivered rows past their retention; paged so each purge batch stays small
+    @Query("select o.id from EmailOutbox o where o.status = :status and o.sentAt < :before")
+    List<Long> findSentBefore(@Param("status") EmailOutbox.Status status,
+                              @Param("before") LocalDateTime before,
+                              Pageable batch);
+}
@@ -0,0 +1,45 @@
+package com.budgetwise.repository;
+
+import com.budgetwise.model.MonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    List<MonthlyRollup> findByUserEmail(String email);
+
+    @Modifying
+    @Query("delete from MonthlyRollup r where r.userEmail = :email")
+    int deleteByUserEmail(@Param("email") String email);
+
+    // Atomic upsert so concurrent writers to the same key never race on the insert
+    @Modifying
+    @Query(value = """
+            insert into monthly_rollup (user_email, period, type, category, total_cents, tx_count)
+            values (:email, :period, :type, :category, :deltaCents, :count)
+            on duplicate key update total_cents = total_cents + :deltaCents, tx_count = tx_count + :count
+            """, nativeQuery = true)
+    int applyDelta(@Param("email") String email,
+                   @Param("period") String period,
+                   @Param("type") String type,
+                   @Param("category") String category,
+                   @Param("deltaCents") long deltaCents,
+                   @Param("count") long count);
+
+    @Query("""
+            select r.type as type, sum(r.totalCents) as totalCents
+            from MonthlyRollup r
+            where r.userEmail = :email
+            group by r.type
+            """)
+    List<TypeTotal> sumByType(@Param("email") String email);
+
+    interface TypeTotal {
+        String getType();
+        Long getTotalCents();
+    }
+}
@@ -1,12 +1,26 @@
 package com.budgetwise.repository;
 
 import com.budgetwise.model.OtpVerification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface OtpVerificationRepository extends JpaRepository<OtpVerification, Long> {
 
     Optional<OtpVerification> findByEmailAndOtpAndUsedFalse(String email, String otp);
 
-}
\ No newline at end of file
+    @Modifying
+    @Query("update OtpVerification o set o.used = true where o.email = :email and o.used = false")
+    int invalidateActive(@Param("email") String email);
+
+    // Ids of rows that can never verify again; paged so each purge batch stays small
+    @Query("select o.id from OtpVerification o where o.used = true or o.expiryTime < :now")
+    List<Long> findPurgeableIds(@Param("now") LocalDateTime now, Pageable batch);
+
+}
@@ -1,16 +1,264 @@
 package com.budgetwise.repository;
 
 import com.budgetwise.model.Transaction;
+import com.budgetwise.model.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>,
+        JpaSpecificationExecutor<Transaction> {
 
     List<Transaction> findByUserEmail(String email);
 
-    // For auto conversion
-    List<Transaction> findByUserEmailAndType(String email, String type);
+    List<Transaction> findByUserEmailAndType(String email, TransactionType type);
+
+    Optional<Transaction> findByIdAndUserEmail(Long id, String email);
+
+    // -------------------
+    // SINGLE-ROW MUTATIONS
+    // -------------------
+    // Each one only matches the owner's row at the version the caller read, so zero means
+    // the row is gone, belongs to someone else or was changed since
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Transaction t
+            set t.date = :date, t.type = :type, t.title = :title, t.category = :category,
+                t.amountCents = :amountCents, t.description = :description, t.reserved = :reserved,
+                t.changeVersion = :changeVersion, t.version = t.version + 1
+            where t.id = :id and t.userEmail = :email and t.version = :version
+            """)
+    int updateOwned(@Param("id") Long id,
+                    @Param("email") String email,
+                    @Param("version") long version,
+                    @Param("date") LocalDate date,
+                    @Param("type") TransactionType type,
+                    @Param("title") String title,
+                    @Param("category") String category,
+                    @Param("amountCents") long amountCents,
+                    @Param("description") String description,
+                    @Param("reserved") boolean reserved,
+                    @Param("changeVersion") long changeVersion);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Transaction t where t.id = :id and t.userEmail = :email and t.version = :version")
+    int deleteOwned(@Param("id") Long id, @Param("email") String email, @Param("version") long version);
+
+    // -------------------
+    // DELTA SYNC
+    // -------------------
+    List<Transaction> findByUserEmailAndChangeVersionBetween(String email, long from, long to);
+
+    // -------------------
+    // BATCH MUTATIONS
+    // -------------------
+    List<Transaction> findByUserEmailAndIdIn(String email, Collection<Long> ids);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Transaction t where t.userEmail = :email and t.id in :ids")
+    int deleteOwned(@Param("email") String email, @Param("ids") Collection<Long> ids);
+
+    // -------------------
+    // RESERVED → EXPENSE MATURATION
+    // -------------------
+    @Query("""
+            select min(t.id) as minId, max(t.id) as maxId
+            from Transaction t
+            where t.type = com.budgetwise.model.TransactionType.RESERVED and t.date <= :today
+            """)
+    IdRange findMaturedReservedIdRange(@Param("today") LocalDate today);
+
+    @Query("""
+            select t.userEmail as userEmail, year(t.date) as year, month(t.date) as month,
+                   t.category as category, sum(t.amountCents) as totalCents, count(t) as count
+            from Transaction t
+            where t.type = com.budgetwise.model.TransactionType.RESERVED and t.date <= :today
+              and t.id between :fromId and :toId
+            group by t.userEmail, year(t.date), month(t.date), t.category
+            """)
+    List<MaturedTotal> sumMaturedReserved(@Param("today") LocalDate today,
+                                          @Param("fromId") Long fromId,
+                                          @Param("toId") Long toId);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Transaction t
+            set t.type = com.budgetwise.model.TransactionType.EXPENSE, t.reserved = false,
+                t.version = t.version + 1,
+                t.changeVersion = coalesce(
+                        (select u.ledgerVersion from User u where u.id = t.userId),
+                        t.changeVersion)
+            where t.type = com.budgetwise.model.TransactionType.RESERVED and t.date <= :today
+              and t.id between :fromId and :toId
+            """)
+    int convertMaturedReserved(@Param("today") LocalDate today,
+                               @Param("fromId") Long fromId,
+                               @Param("toId") Long toId);
+
+    // -------------------
+    // DASHBOARD AGGREGATES
+    // -------------------
+    @Query("""
+            select t.type as type, t.reserved as reserved, t.category as category,
+                   sum(t.amountCents) as totalCents
+            from Transaction t
+            where t.userEmail = :email and t.date between :from and :to
+            group by t.type, t.reserved, t.category
+            """)
+    List<CategoryTotal> sumByCategory(@Param("email") String email,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    @Query("""
+            select t.type as type, t.reserved as reserved,
+                   year(t.date) as year, month(t.date) as month,
+                   sum(t.amountCents) as totalCents
+            from Transaction t
+            where t.userEmail = :email and t.date between :from and :to
+            group by t.type, t.reserved, year(t.date), month(t.date)
+            """)
+    List<MonthTotal> sumByMonth(@Param("email") String email,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to);
+
+    // -------------------
+    // ROLLUP REBUILD / VERIFY
+    // -------------------
+    @Query("select distinct t.userEmail from Transaction t where t.userEmail is not null")
+    List<String> findDistinctUserEmails();
+
+    @Query("""
+            select t.type as type, t.reserved as reserved, t.category as category,
+                   year(t.date) as year, month(t.date) as month,
+                   sum(t.amountCents) as totalCents, count(t) as count
+            from Transaction t
+            where t.userEmail = :email and t.date is not null
+            group by t.type, t.reserved, t.category, year(t.date), month(t.date)
+            """)
+    List<RollupSource> sumForRollup(@Param("email") String email);
+
+    // -------------------
+    // IMPORT DUPLICATE CHECK
+    // -------------------
+    @Query("""
+            select t.date as date, t.type as type, t.amountCents / 100.0 as amount, t.title as title
+            from Transaction t
+            where t.userEmail = :email and t.date between :from and :to
+            """)
+    List<ImportKey> findImportKeys(@Param("email") String email,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    // -------------------
+    // EXPORT
+    // -------------------
+    // Projection rows are never attached to the persistence context; the fetch size
+    // keeps the driver from buffering the whole result (MySQL needs useCursorFetch=true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select t.id as id, t.date as date, t.type as type, t.title as title,
+                   t.category as category, t.amountCents / 100.0 as amount, t.reserved as reserved,
+                   t.description as description
+            from Transaction t
+            where t.userEmail = :email
+            order by t.date, t.id
+            """)
+    Stream<ExportRow> streamForExport(@Param("email") String email);
+
+    // -------------------
+    // LEDGER CACHE
+    // -------------------
+    // Only the columns the summary aggregates; undated rows never fall in a date range
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select t.id as id, t.date as date, t.type as type, t.reserved as reserved,
+                   t.category as category, t.amountCents as amountCents
+            from Transaction t
+            where t.userEmail = :email and t.date is not null
+            """)
+    Stream<LedgerRow> streamForLedgerCache(@Param("email") String email);
+
+    interface IdRange {
+        Long getMinId();
+        Long getMaxId();
+    }
+
+    interface MaturedTotal {
+        String getUserEmail();
+        Integer getYear();
+        Integer getMonth();
+        String getCategory();
+        Long getTotalCents();
+        Long getCount();
+    }
+
+    interface RollupSource {
+        TransactionType getType();
+        Boolean getReserved();
+        String getCategory();
+        Integer getYear();
+        Integer getMonth();
+        Long getTotalCents();
+        Long getCount();
+    }
+
+    interface CategoryTotal {
+        TransactionType getType();
+        Boolean getReserved();
+        String getCategory();
+        Long getTotalCents();
+    }
+
+    interface MonthTotal {
+        TransactionType getType();
+        Boolean getReserved();
+        Integer getYear();
+        Integer getMonth();
+        Long getTotalCents();
+    }
+
+    interface ImportKey {
+        LocalDate getDate();
+        TransactionType getType();
+        Double getAmount();
+        String getTitle();
+    }
+
+    interface ExportRow {
+        Long getId();
+        LocalDate getDate();
+        TransactionType getType();
+        String getTitle();
+        String getCategory();
+        Double getAmount();
+        Boolean getReserved();
+        String getDescription();
+    }
+
+    interface LedgerRow {
+        Long getId();
+        LocalDate getDate();
+        TransactionType getType();
+        Boolean getReserved();
+        String getCategory();
+        Long getAmountCents();
+    }
 }
@@ -0,0 +1,78 @@
+package com.budgetwise.repository;
+
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.TransactionType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Composable filters for the paginated transaction listing.
+ * Each factory returns null when its argument is absent, which
+ * {@link Specification#allOf} simply skips.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {}
+
+    public static Specification<Transaction> ownedBy(String email) {
+        return (root, query, cb) -> cb.equal(root.get("userEmail"), email);
+    }
+
+    public static Specification<Transaction> dateFrom(LocalDate from) {
+        if (from == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<Transaction> dateTo(LocalDate to) {
+        if (to == null) return null;
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), to);
+    }
+
+    // "reserved" is stored either as its own type or as income with the reserved flag
+    public static Specification<Transaction> hasType(String type) {
+        if (type == null || type.isBlank()) return null;
+        if ("reserved".equalsIgnoreCase(type)) {
+            return (root, query, cb) -> cb.isTrue(root.get("reserved"));
+        }
+        TransactionType value = TransactionType.fromValue(type);
+        return (root, query, cb) -> cb.equal(root.get("type"), value);
+    }
+
+    public static Specification<Transaction> inCategory(String category) {
+        if (category == null || category.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    // Amounts are stored in cents; bounds are rounded to the nearest cent
+    public static Specification<Transaction> amountAtLeast(Double min) {
+        if (min == null) return null;
+        long cents = Math.round(min * 100);
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amountCents"), cents);
+    }
+
+    public static Specification<Transaction> amountAtMost(Double max) {
+        if (max == null) return null;
+        long cents = Math.round(max * 100);
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amountCents"), cents);
+    }
+
+    // Keyset predicate for (date DESC NULLS LAST, id DESC) ordering: rows strictly after the cursor
+    public static Specification<Transaction> after(LocalDate date, Long id) {
+        if (id == null) return null;
+        if (date == null) {
+            return (root, query, cb) -> cb.and(
+                    cb.isNull(root.get("date")),
+                    cb.lessThan(root.get("id"), id)
+            );
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), date),
+                cb.and(
+                        cb.equal(root.get("date"), date),
+                        cb.lessThan(root.get("id"), id)
+                ),
+                cb.isNull(root.get("date"))
+        );
+    }
+}
@@ -0,0 +1,29 @@
+package com.budgetwise.repository;
+
+import com.budgetwise.model.TransactionTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransactionTombstoneRepository extends JpaRepository<TransactionTombstone, Long> {
+
+    @Query("""
+            select t.transactionId
+            from TransactionTombstone t
+            where t.userEmail = :email and t.changeVersion > :since and t.changeVersion <= :upTo
+            """)
+    List<Long> findDeletedBetween(@Param("email") String email,
+                                  @Param("since") long since,
+                                  @Param("upTo") long upTo);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TransactionTombstone t where t.deletedAt < :before")
+    int purgeOlderThan(@Param("before") LocalDateTime before);
+
+}
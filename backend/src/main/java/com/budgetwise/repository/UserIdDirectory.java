@@ -0,0 +1,58 @@
+package com.budgetwise.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Email ⇄ users.id mapping used to store transaction owners as ids while
+ * the rest of the code keeps addressing them by email, the JWT subject.
+ * An account's email never changes, so found pairs are cached for good;
+ * unknown emails are not cached, the account may be created later.
+ *
+ * Misses go through the JdbcTemplate and so run on the caller's
+ * connection, as in {@link CategoryDictionary}. Accounts are never created
+ * in the same transaction as ledger rows, so whatever a lookup finds is
+ * already committed and safe to share.
+ */
+@Component
+public class UserIdDirectory {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+    private final Map<Long, String> emails = new ConcurrentHashMap<>();
+
+    public UserIdDirectory(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Long idOf(String email) {
+        if (email == null) return null;
+        Long id = ids.get(email);
+        if (id != null) return id;
+
+        List<Long> found = jdbcTemplate.queryForList("select id from users where email = ?", Long.class, email);
+        if (found.isEmpty()) return null;
+        remember(email, found.get(0));
+        return found.get(0);
+    }
+
+    public String emailOf(Long id) {
+        if (id == null) return null;
+        String email = emails.get(id);
+        if (email != null) return email;
+
+        List<String> found = jdbcTemplate.queryForList("select email from users where id = ?", String.class, id);
+        if (found.isEmpty()) return null;
+        remember(found.get(0), id);
+        return found.get(0);
+    }
+
+    private void remember(String email, Long id) {
+        ids.putIfAbsent(email, id);
+        emails.putIfAbsent(id, email);
+    }
+}
@@ -2,8 +2,53 @@ package com.budgetwise.repository;
 
 import com.budgetwise.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
     boolean existsByUsername(String username);
+
+    // -------------------
+    // LOGIN
+    // -------------------
+    // Targeted updates, so a login never writes back a stale copy of the rest of the row
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.loggedIn = true where u.email = :email")
+    int markLoggedIn(@Param("email") String email);
+
+    // -------------------
+    // LEDGER VERSION
+    // -------------------
+    @Query("select u.id as id, u.ledgerVersion as ledgerVersion from User u where u.email = :email")
+    LedgerVersion findLedgerVersion(@Param("email") String email);
+
+    @Query("select u.email as email, u.ledgerVersion as ledgerVersion from User u where u.email in :emails")
+    List<EmailLedgerVersion> findLedgerVersions(@Param("emails") Collection<String> emails);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.ledgerVersion = u.ledgerVersion + 1 where u.email in :emails")
+    int bumpLedgerVersions(@Param("emails") Collection<String> emails);
+
+    interface LedgerVersion {
+        Long getId();
+        Long getLedgerVersion();
+    }
+
+    interface EmailLedgerVersion {
+        String getEmail();
+        Long getLedgerVersion();
+    }
 }
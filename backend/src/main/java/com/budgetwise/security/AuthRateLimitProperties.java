@@ -0,0 +1,42 @@
+package com.budgetwise.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Request budgets for the unauthenticated auth endpoints. Each endpoint
+ * allows {@code perIp} requests per {@code period} from one client address
+ * and {@code perEmail} for one target account, refilled evenly over the
+ * period. At most {@code maxBuckets} buckets are kept; one unused for
+ * {@code idle} is dropped, which is harmless once it would have refilled.
+ *
+ *   budgetwise.auth.rate-limit.login.per-ip=20
+ *   budgetwise.auth.rate-limit.login.per-email=10
+ *   budgetwise.auth.rate-limit.login.period=1m
+ */
+@ConfigurationProperties(prefix = "budgetwise.auth.rate-limit")
+public record AuthRateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maxBuckets,
+        @DefaultValue("15m") Duration idle,
+        @DefaultValue Limit login,
+        @DefaultValue Limit register,
+        @DefaultValue Limit otp) {
+
+    public record Limit(
+            @DefaultValue("20") int perIp,
+            @DefaultValue("10") int perEmail,
+            @DefaultValue("1m") Duration period) {
+
+        public Limit {
+            if (perIp < 1 || perEmail < 1) throw new IllegalArgumentException("rate limits must be at least 1");
+            if (period.isNegative() || period.isZero()) throw new IllegalArgumentException("period must be positive");
+        }
+    }
+
+    public AuthRateLimitProperties {
+        if (maxBuckets < 1) throw new IllegalArgumentException("max-buckets must be at least 1");
+    }
+}
@@ -0,0 +1,165 @@
+package com.budgetwise.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token buckets in front of the auth endpoints, so a credential-stuffing
+ * burst is refused before it reaches BCrypt or the mail outbox and the
+ * CPU stays available for everyone else.
+ *
+ * Every request must take a token from the bucket of its client address
+ * and then from the bucket of its target email. The address is checked
+ * first, so a client over its own budget can no longer drain someone
+ * else's account budget and lock its owner out. A login that succeeds
+ * gives its email token back ({@link #refund}), so only failed guesses
+ * count against an account. Buckets live in a bounded Caffeine table and
+ * are dropped after {@code idle} without use.
+ *
+ * Refusals are counted in {@code budgetwise.auth.throttled}, tagged by
+ * endpoint and by which key ran out.
+ */
+@Component
+public class AuthRateLimiter {
+
+    public enum Endpoint { LOGIN, REGISTER, OTP }
+
+    private final AuthRateLimitProperties props;
+    private final LongSupplier nanoTime;
+    private final long origin;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public AuthRateLimiter(AuthRateLimitProperties props, MeterRegistry meterRegistry) {
+        this(props, meterRegistry, System::nanoTime);
+    }
+
+    AuthRateLimiter(AuthRateLimitProperties props, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.props = props;
+        this.meterRegistry = meterRegistry;
+        this.nanoTime = nanoTime;
+        this.origin = nanoTime.getAsLong();
+
+        // An idle bucket may only be dropped once it would have refilled completely
+        Duration idle = props.idle();
+        for (AuthRateLimitProperties.Limit limit : new AuthRateLimitProperties.Limit[] {
+                props.login(), props.register(), props.otp()}) {
+            if (limit.period().compareTo(idle) > 0) idle = limit.period();
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(props.maxBuckets())
+                .expireAfterAccess(idle)
+                .build();
+
+        Gauge.builder("budgetwise.auth.rate-limit.buckets", buckets, Cache::estimatedSize)
+                .description("Token buckets currently tracked for the auth endpoints")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token for a request to {@code endpoint} from {@code clientIp}
+     * about {@code email}, which may be null when the request names none.
+     * Returns null when the request may proceed, or how long the client
+     * should wait before retrying.
+     */
+    public Duration acquire(Endpoint endpoint, String clientIp, String email) {
+        if (!props.enabled()) return null;
+
+        AuthRateLimitProperties.Limit limit = limitOf(endpoint);
+        long now = nanoTime.getAsLong() - origin;
+
+        if (clientIp != null) {
+            long wait = bucket(endpoint + "|ip|" + clientIp, limit.perIp(), limit.period()).take(now);
+            if (wait > 0) return refuse(endpoint, "ip", wait);
+        }
+        if (email != null && !email.isBlank()) {
+            long wait = bucket(emailKey(endpoint, email), limit.perEmail(), limit.period()).take(now);
+            if (wait > 0) return refuse(endpoint, "email", wait);
+        }
+        return null;
+    }
+
+    /**
+     * Gives back the email token {@link #acquire} took for a request that
+     * turned out not to be a guess, e.g. a login with the right password.
+     */
+    public void refund(Endpoint endpoint, String email) {
+        if (!props.enabled() || email == null || email.isBlank()) return;
+        TokenBucket bucket = buckets.getIfPresent(emailKey(endpoint, email));
+        if (bucket != null) bucket.refund();
+    }
+
+    private static String emailKey(Endpoint endpoint, String email) {
+        return endpoint + "|email|" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private TokenBucket bucket(String key, int capacity, Duration period) {
+        return buckets.get(key, k -> new TokenBucket(capacity, period.toNanos()));
+    }
+
+    private AuthRateLimitProperties.Limit limitOf(Endpoint endpoint) {
+        return switch (endpoint) {
+            case LOGIN -> props.login();
+            case REGISTER -> props.register();
+            case OTP -> props.otp();
+        };
+    }
+
+    private Duration refuse(Endpoint endpoint, String key, long waitNanos) {
+        Counter.builder("budgetwise.auth.throttled")
+                .tag("endpoint", endpoint.name().toLowerCase(Locale.ROOT))
+                .tag("key", key)
+                .description("Auth requests refused by the rate limiter")
+                .register(meterRegistry)
+                .increment();
+        // Retry-After is in whole seconds; round up so a retry on time is admitted
+        return Duration.ofSeconds(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+    }
+
+    /**
+     * A bucket of {@code capacity} tokens refilled evenly over {@code period},
+     * kept as the single time at which it will be full again (the generic
+     * cell rate algorithm), so taking a token is one compare-and-set.
+     */
+    static final class TokenBucket {
+
+        private final long interval; // nanos to refill one token
+        private final long period;   // nanos to refill the whole bucket
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+        TokenBucket(int capacity, long period) {
+            this.interval = Math.max(1, period / capacity);
+            this.period = interval * capacity;
+        }
+
+        /** Takes a token at {@code now}; returns 0 on success or the nanos until one is available. */
+        long take(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + interval;
+                long wait = next - now - period;
+                if (wait > 0) return wait;
+                if (fullAt.compareAndSet(current, next)) return 0;
+            }
+        }
+
+        /** Puts back one token; a bucket that has refilled since simply stays full. */
+        void refund() {
+            fullAt.addAndGet(-interval);
+        }
+    }
+}
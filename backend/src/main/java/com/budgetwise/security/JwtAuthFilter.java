@@ -2,6 +2,8 @@ package com.budgetwise.security;
 
 import java.io.IOException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,13 +21,18 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     public JwtAuthFilter(JwtUtil jwtUtil,
-                         UserDetailsService userDetailsService) {
+                         UserDetailsService userDetailsService,
+                         PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -37,26 +44,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
 
-        String jwt = null;
-        String username = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+        if (authHeader != null && authHeader.startsWith("Bearer ") &&
+                SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                System.out.println("JWT error: " + e.getMessage());
-            }
-        }
+            String jwt = authHeader.substring(7);
 
-        if (username != null &&
-                SecurityContextHolder.getContext().getAuthentication() == null) {
+            // A cached principal means this exact token was already verified
+            UserDetails userDetails = principalCache.get(jwt);
 
-            UserDetails userDetails =
-                    userDetailsService.loadUserByUsername(username);
+            if (userDetails == null) {
+                userDetails = verifyAndCache(jwt);
+            }
 
-            if (jwtUtil.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null) {
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
@@ -77,4 +77,28 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UserDetails verifyAndCache(String jwt) {
+
+        JwtUtil.VerifiedToken verified;
+
+        try {
+            verified = jwtUtil.verify(jwt);
+        } catch (Exception e) {
+            // Expired or forged tokens are routine; the request just goes on unauthenticated
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+
+        String username = verified.subject();
+        if (username == null) return null;
+
+        UserDetails userDetails =
+                userDetailsService.loadUserByUsername(username);
+
+        if (!username.equals(userDetails.getUsername())) return null;
+
+        principalCache.put(jwt, userDetails, verified.expiration());
+        return userDetails;
+    }
+}
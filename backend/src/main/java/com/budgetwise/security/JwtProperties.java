@@ -0,0 +1,35 @@
+package com.budgetwise.security;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Signing keys for issued tokens, keyed by the {@code kid} header. New tokens
+ * are signed with {@code activeKeyId}; older keys can stay listed until the
+ * tokens they signed have expired.
+ *
+ *   budgetwise.jwt.active-key-id=2024-06
+ *   budgetwise.jwt.keys.2024-06=...
+ *   budgetwise.jwt.keys.default=...
+ */
+@ConfigurationProperties(prefix = "budgetwise.jwt")
+public record JwtProperties(
+        @DefaultValue("default") String activeKeyId,
+        Map<String, String> keys,
+        @DefaultValue("24h") Duration expiration) {
+
+    private static final String LEGACY_SECRET =
+            "budgetwiseSuperSecretKeyForJwtGeneration123456";
+
+    public JwtProperties {
+        if (keys == null || keys.isEmpty()) {
+            keys = Map.of(activeKeyId, LEGACY_SECRET);
+        }
+        if (!keys.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("No JWT key configured for active key id " + activeKeyId);
+        }
+    }
+}
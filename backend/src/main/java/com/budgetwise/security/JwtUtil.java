@@ -1,8 +1,10 @@
 package com.budgetwise.security;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -10,61 +12,88 @@ import org.springframework.stereotype.Component;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 
+/**
+ * Issues and verifies HS256 tokens. Keys and the parser are built once at
+ * startup, and {@link #verify(String)} checks a token exactly once, returning
+ * an immutable {@link VerifiedToken} that callers read claims from.
+ */
 @Component
 public class JwtUtil {
 
-    private static final String SECRET =
-            "budgetwiseSuperSecretKeyForJwtGeneration123456";
+    /** Claims of a token whose signature and expiry have been checked. */
+    public record VerifiedToken(String subject, Date issuedAt, Date expiration, String keyId) {
 
-    private static final long EXPIRATION =
-            1000 * 60 * 60 * 24;
+        public boolean isExpired() {
+            return expiration != null && expiration.before(new Date());
+        }
+    }
 
-    private Key getSignKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    private final long expirationMillis;
+    private final String activeKeyId;
+    private final Key activeKey;
+    private final JwtParser parser;
+
+    public JwtUtil(JwtProperties properties) {
+        Map<String, Key> keys = new HashMap<>();
+        properties.keys().forEach((kid, secret) ->
+                keys.put(kid, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))));
+
+        this.expirationMillis = properties.expiration().toMillis();
+        this.activeKeyId = properties.activeKeyId();
+        this.activeKey = keys.get(activeKeyId);
+
+        // Tokens issued before kid headers existed are checked against the active key
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String kid = header.getKeyId() != null ? header.getKeyId() : activeKeyId;
+                        Key key = keys.get(kid);
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown JWT key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String username) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationMillis))
+                .signWith(activeKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token,
-                              Function<Claims, T> resolver) {
-
-        final Claims claims = extractAllClaims(token);
-        return resolver.apply(claims);
+    // Throws JwtException if the signature, key id or expiry is invalid
+    public VerifiedToken verify(String token) {
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                jws.getHeader().getKeyId());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String extractUsername(String token) {
+        return verify(token).subject();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Date extractExpiration(String token) {
+        return verify(token).expiration();
     }
 
     public Boolean isTokenValid(String token,
                                 UserDetails userDetails) {
 
-        final String username = extractUsername(token);
+        final VerifiedToken verified = verify(token);
 
-        return username.equals(userDetails.getUsername())
-                && !isTokenExpired(token);
+        return verified.subject().equals(userDetails.getUsername())
+                && !verified.isExpired();
     }
-}
\ No newline at end of file
+}
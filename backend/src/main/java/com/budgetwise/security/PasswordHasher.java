@@ -0,0 +1,151 @@
+package com.budgetwise.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The application's {@link PasswordEncoder}: BCrypt, run on a small pool of
+ * dedicated threads instead of the request thread, so a burst of logins can
+ * use at most {@code threads} cores and the rest of the API keeps its CPU.
+ * When the pool and its queue are full, calls fail fast with
+ * {@link PasswordHashingBusyException}.
+ *
+ * The cost is calibrated once at startup against {@code target-time}.
+ * {@link #upgradeEncoding} reports hashes made at a lower cost, which
+ * Spring Security's login then rehashes through
+ * {@link org.springframework.security.core.userdetails.UserDetailsPasswordService}.
+ *
+ * Pool usage is published as {@code executor.*} meters tagged
+ * {@code name=budgetwise.auth.password}; refusals as
+ * {@code budgetwise.auth.password.rejected}.
+ */
+@Component
+public class PasswordHasher implements PasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordHashingProperties props, MeterRegistry meterRegistry) {
+        this.cost = props.cost() != 0
+                ? props.cost()
+                : calibrate(props.targetTime().toNanos(), props.minCost(), props.maxCost());
+        this.bcrypt = new BCryptPasswordEncoder(cost);
+        log.info("Hashing passwords with BCrypt cost {} on {} threads", cost, props.threads());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        BlockingQueue<Runnable> queue = props.queue() > 0
+                ? new ArrayBlockingQueue<>(props.queue())
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(props.threads(), props.threads(), 0, TimeUnit.MILLISECONDS, queue,
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "budgetwise.auth.password");
+        this.rejected = Counter.builder("budgetwise.auth.password.rejected")
+                .description("Password hashes refused because the hashing pool was full")
+                .register(meterRegistry);
+    }
+
+    // Highest cost whose hash fits the target; each step doubles the work
+    static int calibrate(long targetNanos, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration"); // warm-up
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        long nanos = Math.max(1, System.nanoTime() - start);
+
+        int cost = minCost;
+        while (cost < maxCost && nanos * 2 <= targetNanos) {
+            nanos *= 2;
+            cost++;
+        }
+        return cost;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) return false;
+        return run(() -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int encodedCost = costOf(encodedPassword);
+        // Never downgrade: a host that calibrates lower must not weaken stronger hashes
+        return encodedCost > 0 && encodedCost < cost;
+    }
+
+    // "$2a$10$..." -> 10; 0 for anything that isn't a BCrypt hash
+    static int costOf(String encoded) {
+        if (encoded == null || encoded.length() < 7 || encoded.charAt(0) != '$' || encoded.charAt(3) != '$'
+                || encoded.charAt(6) != '$') {
+            return 0;
+        }
+        char tens = encoded.charAt(4);
+        char ones = encoded.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) return 0;
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException();
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,13 @@
+package com.budgetwise.security;
+
+/**
+ * Thrown when a password can't be hashed or checked because the hashing
+ * threads and their queue are full. Nothing was computed; the client should
+ * retry shortly.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Server is busy, please try again shortly");
+    }
+}
@@ -0,0 +1,33 @@
+package com.budgetwise.security;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits for BCrypt work. Hashing runs on {@code threads} dedicated threads
+ * (0 means half the CPUs, at least one, so a login burst leaves the other
+ * half to the rest of the API) with at most {@code queue} more requests
+ * waiting; anything beyond that is refused. The cost is the highest between
+ * {@code minCost} and {@code maxCost} whose hash takes no longer than
+ * {@code targetTime} on this machine, unless {@code cost} pins it.
+ */
+@ConfigurationProperties(prefix = "budgetwise.auth.password")
+public record PasswordHashingProperties(
+        @DefaultValue("0") int threads,
+        @DefaultValue("64") int queue,
+        @DefaultValue("250ms") Duration targetTime,
+        @DefaultValue("10") int minCost,
+        @DefaultValue("14") int maxCost,
+        @DefaultValue("0") int cost) {
+
+    public PasswordHashingProperties {
+        if (threads <= 0) threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        queue = Math.max(queue, 0);
+        if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("BCrypt costs must satisfy 4 <= min-cost <= max-cost <= 31");
+        }
+        if (cost != 0 && (cost < 4 || cost > 31)) throw new IllegalArgumentException("cost must be between 4 and 31");
+    }
+}
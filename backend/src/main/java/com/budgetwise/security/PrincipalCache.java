@@ -0,0 +1,89 @@
+package com.budgetwise.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Bounded cache of principals whose token has already been verified, keyed
+ * by the SHA-256 of the raw token. An entry never outlives its token's
+ * expiry, so a hit can authenticate the request without touching the
+ * database or re-checking the signature.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(UserDetails userDetails, long expiresAtMillis) {}
+
+    private final Cache<String, Entry> cache;
+
+    public PrincipalCache(
+            @Value("${budgetwise.auth.principal-cache.max-size:10000}") long maxSize,
+            @Value("${budgetwise.auth.principal-cache.ttl:10m}") Duration ttl) {
+
+        long ttlNanos = ttl.toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(
+                                entry.expiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public UserDetails get(String token) {
+        Entry entry = cache.getIfPresent(hash(token));
+        if (entry == null || entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, Date expiresAt) {
+        cache.put(hash(token), new Entry(userDetails, expiresAt.getTime()));
+    }
+
+    // Drops every cached token for this user, e.g. after a password change
+    public void invalidateUser(String username) {
+        cache.asMap().values().removeIf(e -> e.userDetails().getUsername().equals(username));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
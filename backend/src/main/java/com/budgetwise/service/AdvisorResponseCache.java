@@ -0,0 +1,94 @@
+package com.budgetwise.service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded LRU/TTL cache of AI advisor answers. An answer is reused only for
+ * the same user asking the same (normalized) question while the dashboard
+ * figures that went into the prompt are unchanged; any change to the user's
+ * transactions drops their entries once it commits.
+ *
+ * Hits, misses and evictions are published as {@code cache.*} meters tagged
+ * {@code cache=budgetwise.ai.responses}.
+ */
+@Component
+public class AdvisorResponseCache {
+
+    private record Key(String userEmail, String question, String fingerprint) {}
+
+    private final Cache<Key, String> cache;
+
+    public AdvisorResponseCache(MeterRegistry meterRegistry,
+                                @Value("${budgetwise.ai.cache.max-size:5000}") long maxSize,
+                                @Value("${budgetwise.ai.cache.ttl:30m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "budgetwise.ai.responses");
+    }
+
+    public String get(String userEmail, String question, String fingerprint) {
+        return cache.getIfPresent(new Key(userEmail, normalize(question), fingerprint));
+    }
+
+    public void put(String userEmail, String question, String fingerprint, String answer) {
+        if (answer == null || answer.isBlank()) return;
+        cache.put(new Key(userEmail, normalize(question), fingerprint), answer);
+    }
+
+    // Called whenever the user's transactions change; a transaction's users are
+    // dropped together after it commits, in one pass however many rows it wrote
+    public void invalidateUser(String userEmail) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            drop(Set.of(userEmail));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> fresh = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, fresh);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop(fresh);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AdvisorResponseCache.this);
+                }
+            });
+            pending = fresh;
+        }
+        pending.add(userEmail);
+    }
+
+    private void drop(Set<String> userEmails) {
+        cache.asMap().keySet().removeIf(k -> userEmails.contains(k.userEmail()));
+    }
+
+    // "  What should I SAVE?? " and "what should i save" ask the same thing
+    static String normalize(String question) {
+        return question.trim()
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .replaceAll("[?!.\\s]+$", "");
+    }
+}
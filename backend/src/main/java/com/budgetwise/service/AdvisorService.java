@@ -0,0 +1,44 @@
+package com.budgetwise.service;
+
+import com.budgetwise.dto.AdvisorSnapshot;
+import com.budgetwise.model.User;
+import com.budgetwise.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Data phase of an AI advisor request. Everything the prompt needs is read in
+ * one short read-only transaction, so the connection is back in the pool
+ * before the multi-second call to the provider starts.
+ */
+@Service
+public class AdvisorService {
+
+    private final UserRepository userRepository;
+    private final MonthlyRollupService rollupService;
+
+    public AdvisorService(UserRepository userRepository, MonthlyRollupService rollupService) {
+        this.userRepository = userRepository;
+        this.rollupService = rollupService;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AdvisorSnapshot> snapshot(String email) {
+        User user = userRepository.findByEmail(email);
+        if (user == null) return Optional.empty();
+
+        // Totals come from the monthly rollups rather than the full transaction list, in cents
+        Map<String, Long> totals = rollupService.totalsByType(user.getEmail());
+
+        long totalIncome = totals.getOrDefault("income", 0L);
+        long reservedSavings = totals.getOrDefault("reserved", 0L);
+        long totalExpenses = totals.getOrDefault("expense", 0L) + reservedSavings;
+        long totalBalance = totalIncome - totalExpenses;
+
+        return Optional.of(new AdvisorSnapshot(user.getEmail(),
+                totalIncome / 100.0, reservedSavings / 100.0, totalExpenses / 100.0, totalBalance / 100.0));
+    }
+}
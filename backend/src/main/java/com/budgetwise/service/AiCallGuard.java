@@ -0,0 +1,272 @@
+package com.budgetwise.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bulkhead plus circuit breaker for calls to the AI provider, so a slow or
+ * failing provider cannot tie up the request threads the transaction
+ * endpoints also need.
+ *
+ * A call first passes the breaker, then takes one of
+ * {@code max-concurrent} permits, waiting in a queue of at most
+ * {@code max-queue} callers for up to {@code max-wait}. Refused calls fail
+ * fast with {@link AiUnavailableException}.
+ */
+@Component
+public class AiCallGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(AiCallGuard.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final AiResilienceProperties props;
+
+    // -------------------
+    // BULKHEAD
+    // -------------------
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    // -------------------
+    // BREAKER (guarded by this)
+    // -------------------
+    private State state = State.CLOSED;
+    private final boolean[] failedWindow;
+    private final boolean[] slowWindow;
+    private int next;
+    private int recorded;
+    private int failedCount;
+    private int slowCount;
+    private long openUntilNanos;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+    private final Timer callTimer;
+
+    public AiCallGuard(AiResilienceProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.permits = new Semaphore(props.maxConcurrent(), true);
+        this.failedWindow = new boolean[props.window()];
+        this.slowWindow = new boolean[props.window()];
+
+        this.bulkheadRejections = Counter.builder("budgetwise.ai.rejected")
+                .tag("reason", "bulkhead")
+                .description("AI calls refused because the bulkhead was full")
+                .register(meterRegistry);
+        this.circuitRejections = Counter.builder("budgetwise.ai.rejected")
+                .tag("reason", "circuit")
+                .description("AI calls refused because the circuit breaker was open")
+                .register(meterRegistry);
+        this.callTimer = Timer.builder("budgetwise.ai.call.duration")
+                .description("Time spent in admitted AI calls")
+                .register(meterRegistry);
+
+        Gauge.builder("budgetwise.ai.bulkhead.queue", waiting, AtomicInteger::get)
+                .description("Callers waiting for a bulkhead permit")
+                .register(meterRegistry);
+        Gauge.builder("budgetwise.ai.bulkhead.active", permits,
+                        p -> props.maxConcurrent() - p.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("budgetwise.ai.circuit.state", this, g -> g.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+    }
+
+    /** Runs a blocking call; any exception it throws counts as a failure. */
+    public <T> T execute(Supplier<T> call) {
+        Permit permit = acquire(true);
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            permit.finish(failed);
+        }
+    }
+
+    /**
+     * Admits one call, for callers such as a streaming response that finish
+     * asynchronously. With {@code wait} false a full bulkhead is refused at once.
+     * The permit must be finished or cancelled exactly once.
+     */
+    public Permit acquire(boolean wait) {
+        boolean probe = enterBreaker();
+        try {
+            acquireBulkhead(wait);
+        } catch (AiUnavailableException e) {
+            if (probe) abandonProbe();
+            throw e;
+        }
+        return new Permit(probe);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public final class Permit {
+
+        private final boolean probe;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Permit(boolean probe) {
+            this.probe = probe;
+        }
+
+        public void success() {
+            finish(false);
+        }
+
+        public void failure() {
+            finish(true);
+        }
+
+        // The caller went away; the outcome says nothing about the provider
+        public void cancel() {
+            if (!done.compareAndSet(false, true)) return;
+            permits.release();
+            if (probe) abandonProbe();
+        }
+
+        private void finish(boolean failed) {
+            if (!done.compareAndSet(false, true)) return;
+            long elapsed = System.nanoTime() - startNanos;
+            permits.release();
+            callTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            record(probe, failed, elapsed >= props.slowCallThreshold().toNanos());
+        }
+    }
+
+    private void acquireBulkhead(boolean wait) {
+        if (permits.tryAcquire()) return;
+
+        if (!wait || props.maxWait().isZero()) {
+            rejectBulkhead();
+        }
+        if (waiting.incrementAndGet() > props.maxQueue()) {
+            waiting.decrementAndGet();
+            rejectBulkhead();
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(props.maxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) rejectBulkhead();
+    }
+
+    private void rejectBulkhead() {
+        bulkheadRejections.increment();
+        throw new AiUnavailableException(AiUnavailableException.Reason.BULKHEAD_FULL, Duration.ofSeconds(1));
+    }
+
+    // Returns true when the call is a half-open probe
+    private synchronized boolean enterBreaker() {
+        if (state == State.OPEN) {
+            long remaining = openUntilNanos - System.nanoTime();
+            if (remaining > 0) {
+                circuitRejections.increment();
+                throw new AiUnavailableException(AiUnavailableException.Reason.CIRCUIT_OPEN,
+                        Duration.ofNanos(remaining));
+            }
+            state = State.HALF_OPEN;
+            halfOpenInFlight = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= props.halfOpenCalls()) {
+                circuitRejections.increment();
+                throw new AiUnavailableException(AiUnavailableException.Reason.CIRCUIT_OPEN,
+                        Duration.ofSeconds(1));
+            }
+            halfOpenInFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void abandonProbe() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) halfOpenInFlight--;
+    }
+
+    private synchronized void record(boolean probe, boolean failed, boolean slow) {
+        if (probe) {
+            if (state != State.HALF_OPEN) return;
+            halfOpenInFlight--;
+            if (failed || slow) {
+                open();
+            } else if (++halfOpenSucceeded >= props.halfOpenCalls()) {
+                close();
+            }
+            return;
+        }
+
+        // A call admitted before the breaker opened says nothing about the provider now
+        if (state != State.CLOSED) return;
+
+        if (recorded == failedWindow.length) {
+            if (failedWindow[next]) failedCount--;
+            if (slowWindow[next]) slowCount--;
+        } else {
+            recorded++;
+        }
+        failedWindow[next] = failed;
+        slowWindow[next] = slow;
+        if (failed) failedCount++;
+        if (slow) slowCount++;
+        next = (next + 1) % failedWindow.length;
+
+        if (recorded >= props.minCalls()
+                && (failedCount * 100 >= props.failureRateThreshold() * recorded
+                    || slowCount * 100 >= props.slowCallRateThreshold() * recorded)) {
+            open();
+        }
+    }
+
+    private void open() {
+        log.warn("AI circuit breaker opened: {} failed and {} slow of the last {} calls",
+                failedCount, slowCount, recorded);
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + props.openFor().toNanos();
+        resetWindow();
+    }
+
+    private void close() {
+        log.info("AI circuit breaker closed");
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        Arrays.fill(failedWindow, false);
+        Arrays.fill(slowWindow, false);
+        next = 0;
+        recorded = 0;
+        failedCount = 0;
+        slowCount = 0;
+    }
+}
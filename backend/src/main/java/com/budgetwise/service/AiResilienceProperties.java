@@ -0,0 +1,36 @@
+package com.budgetwise.service;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits for outbound AI calls. The bulkhead lets {@code maxConcurrent} calls
+ * run and at most {@code maxQueue} more wait up to {@code maxWait}; the breaker
+ * opens for {@code openFor} once the failure or slow-call rate over the last
+ * {@code window} calls reaches its threshold.
+ */
+@ConfigurationProperties(prefix = "budgetwise.ai.resilience")
+public record AiResilienceProperties(
+        @DefaultValue("3s") Duration connectTimeout,
+        @DefaultValue("20s") Duration readTimeout,
+        @DefaultValue("8") int maxConcurrent,
+        @DefaultValue("16") int maxQueue,
+        @DefaultValue("1s") Duration maxWait,
+        @DefaultValue("20") int window,
+        @DefaultValue("10") int minCalls,
+        @DefaultValue("50") int failureRateThreshold,
+        @DefaultValue("10s") Duration slowCallThreshold,
+        @DefaultValue("80") int slowCallRateThreshold,
+        @DefaultValue("30s") Duration openFor,
+        @DefaultValue("3") int halfOpenCalls) {
+
+    public AiResilienceProperties {
+        if (maxConcurrent < 1) throw new IllegalArgumentException("max-concurrent must be at least 1");
+        if (window < 1) throw new IllegalArgumentException("window must be at least 1");
+        maxQueue = Math.max(maxQueue, 0);
+        minCalls = Math.max(Math.min(minCalls, window), 1);
+        halfOpenCalls = Math.max(halfOpenCalls, 1);
+    }
+}
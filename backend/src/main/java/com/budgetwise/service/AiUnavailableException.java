@@ -0,0 +1,31 @@
+package com.budgetwise.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an AI call is refused up front, either because the bulkhead is
+ * full or because the circuit breaker is open. Nothing was sent to the provider.
+ */
+public class AiUnavailableException extends RuntimeException {
+
+    public enum Reason { BULKHEAD_FULL, CIRCUIT_OPEN }
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public AiUnavailableException(Reason reason, Duration retryAfter) {
+        super(reason == Reason.CIRCUIT_OPEN
+                ? "AI service is temporarily unavailable"
+                : "AI service is busy");
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
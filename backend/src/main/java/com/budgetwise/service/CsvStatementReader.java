@@ -0,0 +1,161 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.Transaction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV statement with a header row. Recognised columns (case-insensitive):
+ *
+ *   date | transaction date | posted date       required
+ *   amount, or debit and/or credit              required
+ *   type, title | name | payee, category,
+ *   description | memo | narration              optional
+ *
+ * Quoted fields may contain commas and doubled quotes but not line breaks.
+ */
+class CsvStatementReader implements StatementReader {
+
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+            Map.entry("date", "date"),
+            Map.entry("transaction date", "date"),
+            Map.entry("posted date", "date"),
+            Map.entry("amount", "amount"),
+            Map.entry("debit", "debit"),
+            Map.entry("credit", "credit"),
+            Map.entry("type", "type"),
+            Map.entry("title", "title"),
+            Map.entry("name", "title"),
+            Map.entry("payee", "title"),
+            Map.entry("category", "category"),
+            Map.entry("description", "description"),
+            Map.entry("memo", "description"),
+            Map.entry("narration", "description"));
+
+    private final BufferedReader reader;
+    private Map<String, Integer> columns;
+    private long line;
+
+    CsvStatementReader(Reader reader) {
+        this.reader = new BufferedReader(reader, 64 * 1024);
+    }
+
+    @Override
+    public Row next() throws IOException {
+        if (columns == null) readHeader();
+
+        String raw;
+        while ((raw = reader.readLine()) != null) {
+            line++;
+            if (raw.isBlank()) continue;
+            try {
+                return Row.ok(line, map(split(raw)));
+            } catch (IllegalArgumentException e) {
+                return Row.failed(line, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        line++;
+        if (header == null) throw new IllegalArgumentException("Statement is empty");
+        if (header.startsWith("\uFEFF")) header = header.substring(1); // byte order mark
+
+        columns = new HashMap<>();
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            String column = ALIASES.get(names.get(i).trim().toLowerCase(Locale.ROOT));
+            if (column != null) columns.putIfAbsent(column, i);
+        }
+
+        if (!columns.containsKey("date")) {
+            throw new IllegalArgumentException("CSV header needs a date column");
+        }
+        if (!columns.containsKey("amount") && !columns.containsKey("debit") && !columns.containsKey("credit")) {
+            throw new IllegalArgumentException("CSV header needs an amount, debit or credit column");
+        }
+    }
+
+    private Transaction map(List<String> fields) {
+        BigDecimal amount;
+        if (columns.containsKey("amount")) {
+            amount = StatementReader.parseAmount(field(fields, "amount"));
+        } else {
+            // Bank exports often split money out and money in across two columns
+            String debit = field(fields, "debit");
+            String credit = field(fields, "credit");
+            amount = BigDecimal.ZERO;
+            if (credit != null && !credit.isBlank()) amount = amount.add(StatementReader.parseAmount(credit).abs());
+            if (debit != null && !debit.isBlank()) amount = amount.subtract(StatementReader.parseAmount(debit).abs());
+        }
+
+        return StatementReader.toTransaction(
+                StatementReader.parseDate(field(fields, "date")),
+                field(fields, "type"),
+                text(fields, "title"),
+                text(fields, "category"),
+                amount,
+                text(fields, "description"));
+    }
+
+    /** A text field, without the quote our export puts in front of formula-like cells. */
+    private String text(List<String> fields, String column) {
+        String value = field(fields, column);
+        if (value != null && value.length() > 1 && value.charAt(0) == '\''
+                && "=+-@\t".indexOf(value.charAt(1)) >= 0) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    static List<String> split(String raw) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < raw.length() && raw.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+
+        fields.add(current.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -1,8 +1,13 @@
 package com.budgetwise.service;
 
-import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,12 +16,21 @@ import com.budgetwise.model.User;
 import com.budgetwise.repository.UserRepository;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    // Granted to the configured operator accounts; required for every actuator endpoint but health
+    public static final String ACTUATOR_AUTHORITY = "ACTUATOR";
 
     private final UserRepository userRepository;
+    private final Set<String> operators;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${budgetwise.actuator.operators:}") List<String> operators) {
         this.userRepository = userRepository;
+        this.operators = operators.stream()
+                .map(email -> email.toLowerCase().trim())
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
@@ -30,11 +44,22 @@ public class CustomUserDetailsService implements UserDetailsService {
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getEmail())
                 .password(user.getPassword())
-                .authorities(Collections.emptyList()) // no roles yet
+                .authorities(operators.contains(user.getEmail())
+                        ? List.of(new SimpleGrantedAuthority(ACTUATOR_AUTHORITY))
+                        : List.of())
                 .accountExpired(false)
                 .accountLocked(false)
                 .credentialsExpired(false)
                 .disabled(false)
                 .build();
     }
+
+    // Called after a successful login whose stored hash was made at another BCrypt cost
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
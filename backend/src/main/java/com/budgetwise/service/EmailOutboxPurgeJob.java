@@ -0,0 +1,63 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.EmailOutbox;
+import com.budgetwise.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes outbox rows that were sent more than
+ * {@code budgetwise.mail.outbox.purge.retention} ago, in batches, so the
+ * table only grows with undelivered mail. Failed rows are kept for
+ * inspection.
+ */
+@Component
+public class EmailOutboxPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxPurgeJob.class);
+
+    private final EmailOutboxRepository outboxRepository;
+
+    @Value("${budgetwise.mail.outbox.purge.retention:7d}")
+    private Duration retention;
+
+    @Value("${budgetwise.mail.outbox.purge.batch-size:500}")
+    private int batchSize;
+
+    public EmailOutboxPurgeJob(EmailOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    @Scheduled(cron = "${budgetwise.mail.outbox.purge.cron:0 45 3 * * *}")
+    public void run() {
+        int purged = purge(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} sent outbox rows", purged);
+        }
+    }
+
+    public int purge(LocalDateTime now) {
+        LocalDateTime sentBefore = now.minus(retention);
+        int size = Math.max(batchSize, 1);
+        int total = 0;
+
+        List<Long> ids;
+        do {
+            ids = outboxRepository.findSentBefore(EmailOutbox.Status.SENT, sentBefore, PageRequest.of(0, size));
+            if (!ids.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(ids);
+                total += ids.size();
+            }
+        } while (ids.size() == size);
+
+        return total;
+    }
+}
@@ -0,0 +1,38 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.EmailOutbox;
+import com.budgetwise.repository.EmailOutboxRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Queues outgoing mail. The row joins the caller's transaction, and the
+ * worker is woken only once that transaction commits.
+ */
+@Service
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailOutboxWorker worker;
+
+    public EmailOutboxService(EmailOutboxRepository outboxRepository, EmailOutboxWorker worker) {
+        this.outboxRepository = outboxRepository;
+        this.worker = worker;
+    }
+
+    @Transactional
+    public EmailOutbox enqueue(String recipient, String subject, String body) {
+        EmailOutbox saved = outboxRepository.save(new EmailOutbox(recipient, subject, body));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                worker.wakeUp();
+            }
+        });
+
+        return saved;
+    }
+}
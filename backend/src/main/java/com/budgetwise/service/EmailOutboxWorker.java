@@ -0,0 +1,233 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.EmailOutbox;
+import com.budgetwise.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the email outbox. A single dispatcher thread claims batches of due
+ * rows and hands each batch to a bounded pool of sender threads; a batch goes
+ * out through one {@link JavaMailSender#send(SimpleMailMessage...)} call, so
+ * its messages share one SMTP connection.
+ *
+ * Failed messages are retried with exponential backoff until
+ * {@code budgetwise.mail.outbox.max-attempts}, then marked FAILED.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration staleAfter;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "mail-outbox-dispatcher"));
+    private final ExecutorService senders;
+    private final Semaphore senderPermits;
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+    private final Timer deliveryLatency;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public EmailOutboxWorker(EmailOutboxRepository outboxRepository,
+                             JavaMailSender mailSender,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${budgetwise.mail.outbox.workers:2}") int workers,
+                             @Value("${budgetwise.mail.outbox.batch-size:20}") int batchSize,
+                             @Value("${budgetwise.mail.outbox.max-attempts:6}") int maxAttempts,
+                             @Value("${budgetwise.mail.outbox.backoff:30s}") Duration backoff,
+                             @Value("${budgetwise.mail.outbox.stale-after:5m}") Duration staleAfter) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.backoff = backoff;
+        this.staleAfter = staleAfter;
+
+        int poolSize = Math.max(workers, 1);
+        this.senders = Executors.newFixedThreadPool(poolSize, r -> new Thread(r, "mail-outbox-sender"));
+        this.senderPermits = new Semaphore(poolSize);
+
+        this.deliveryLatency = Timer.builder("budgetwise.mail.delivery.latency")
+                .description("Time from enqueue to successful SMTP delivery")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("budgetwise.mail.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("budgetwise.mail.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("budgetwise.mail.failed")
+                .description("Messages given up on after the last retry")
+                .register(meterRegistry);
+        Gauge.builder("budgetwise.mail.senders.busy", senderPermits, p -> poolSize - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${budgetwise.mail.outbox.poll-interval:1000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    // Called after an outbox row commits so mail goes out without waiting for the next poll
+    public void wakeUp() {
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        dispatchScheduled.set(false);
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.releaseStale(now.minus(staleAfter),
+                            EmailOutbox.Status.SENDING, EmailOutbox.Status.PENDING));
+
+            while (senderPermits.tryAcquire()) {
+                List<EmailOutbox> batch = claimBatch();
+                if (batch.isEmpty()) {
+                    senderPermits.release();
+                    return;
+                }
+                senders.execute(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        senderPermits.release();
+                        // A full batch suggests more mail is waiting
+                        if (batch.size() == batchSize) wakeUp();
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            log.error("Email outbox dispatch failed", e);
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> {
+            List<Long> ids = outboxRepository.findDueIds(
+                    EmailOutbox.Status.PENDING, now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) return Collections.<EmailOutbox>emptyList();
+
+            outboxRepository.claim(ids, token, now,
+                    EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING);
+            return outboxRepository.findByClaimToken(token);
+        });
+        return batch != null ? batch : Collections.emptyList();
+    }
+
+    // Sends one claimed batch and records the outcome of every row
+    void send(List<EmailOutbox> batch) {
+        Map<SimpleMailMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+        for (EmailOutbox row : batch) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(row.getRecipient());
+            message.setSubject(row.getSubject());
+            message.setText(row.getBody());
+            byMessage.put(message, row);
+        }
+
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        Exception batchFailure = null;
+
+        try {
+            mailSender.send(byMessage.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) batchFailure = e;
+        } catch (MailException e) {
+            // Connection or authentication problem: nothing in the batch went out
+            batchFailure = e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> e : byMessage.entrySet()) {
+            Exception error = batchFailure != null ? batchFailure : failures.get(e.getKey());
+            if (error == null) {
+                markSent(e.getValue(), now);
+            } else {
+                markFailed(e.getValue(), now, error);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(batch));
+    }
+
+    private void markSent(EmailOutbox row, LocalDateTime now) {
+        row.setStatus(EmailOutbox.Status.SENT);
+        row.setSentAt(now);
+        row.setClaimToken(null);
+        row.setAttempts(row.getAttempts() + 1);
+        sentCounter.increment();
+        if (row.getCreatedAt() != null) {
+            deliveryLatency.record(Duration.between(row.getCreatedAt(), now).toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void markFailed(EmailOutbox row, LocalDateTime now, Exception error) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setClaimToken(null);
+
+        String message = String.valueOf(error.getMessage());
+        row.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (attempts >= maxAttempts) {
+            row.setStatus(EmailOutbox.Status.FAILED);
+            failedCounter.increment();
+            log.warn("Giving up on email {} to {} after {} attempts", row.getId(), row.getRecipient(), attempts);
+        } else {
+            // backoff, 2x backoff, 4x backoff, ...
+            row.setStatus(EmailOutbox.Status.PENDING);
+            row.setNextAttemptAt(now.plus(backoff.multipliedBy(1L << Math.min(attempts - 1, 10))));
+            retriedCounter.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+        senders.shutdown();
+    }
+}
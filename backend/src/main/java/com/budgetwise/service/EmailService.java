@@ -1,21 +1,17 @@
 package com.budgetwise.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxService emailOutbox;
 
     public void sendOtp(String email, String otp, String purpose) {
-        SimpleMailMessage msg = new SimpleMailMessage();
-        msg.setTo(email);
-        msg.setSubject("BudgetWise - " + purpose);
-        msg.setText("Your OTP is: " + otp + " (Valid for 10 minutes)");
-        mailSender.send(msg);
+        emailOutbox.enqueue(email,
+                "BudgetWise - " + purpose,
+                "Your OTP is: " + otp + " (Valid for 10 minutes)");
     }
 }
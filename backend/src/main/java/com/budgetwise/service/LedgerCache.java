@@ -0,0 +1,132 @@
+package com.budgetwise.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.TransactionType;
+import com.budgetwise.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Active users' ledgers as {@link LedgerColumns}, bounded by an
+ * approximate memory budget and dropped after a period without reads.
+ *
+ * An entry is labelled with the ledger version it was built at and is only
+ * served while that is still the committed version, so writers that don't
+ * report their changes here (import, maturation) just cost a reload.
+ * TransactionService reports its changes, which are applied to the cached
+ * columns after commit.
+ *
+ * Hits, misses and evictions are published as {@code cache.*} meters tagged
+ * {@code cache=budgetwise.ledger.columns}.
+ */
+@Component
+public class LedgerCache {
+
+    private final Cache<String, LedgerColumns> cache;
+    private final TransactionRepository repository;
+    private final LedgerVersionService ledgerVersions;
+    private final TransactionTemplate readOnly;
+
+    public LedgerCache(TransactionRepository repository,
+                       LedgerVersionService ledgerVersions,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${budgetwise.ledger.cache.budget:64MB}") DataSize budget,
+                       @Value("${budgetwise.ledger.cache.idle:30m}") Duration idle) {
+        this.repository = repository;
+        this.ledgerVersions = ledgerVersions;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(budget.toBytes())
+                .weigher((String email, LedgerColumns columns) ->
+                        (int) Math.min(Integer.MAX_VALUE, columns.sizeInBytes()))
+                .expireAfterAccess(idle)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "budgetwise.ledger.columns");
+    }
+
+    /**
+     * The user's columns at the committed ledger version, loading them if
+     * needed, or null when the caller should query the database instead.
+     */
+    LedgerColumns get(String email) {
+        // Inside a write the version and rows may not be committed yet
+        if (email == null || TransactionSynchronizationManager.isActualTransactionActive()) return null;
+
+        // Users without an account never bump their version, so it can't tell when rows change
+        long version = ledgerVersions.current(email);
+        if (version == 0) return null;
+
+        LedgerColumns cached = cache.getIfPresent(email);
+        if (cached != null && cached.version() == version) return cached;
+
+        LedgerColumns loaded = readOnly.execute(status -> load(email));
+        if (loaded == null) return null;
+        cache.asMap().merge(email, loaded, (old, fresh) -> fresh.version() >= old.version() ? fresh : old);
+        return loaded;
+    }
+
+    // The version is read first: rows committed after it only make the entry
+    // look older than it is, and the next read reloads it
+    private LedgerColumns load(String email) {
+        long version = ledgerVersions.current(email);
+        List<LedgerColumns.Row> rows = new ArrayList<>();
+        try (Stream<TransactionRepository.LedgerRow> stream = repository.streamForLedgerCache(email)) {
+            stream.forEach(r -> rows.add(LedgerColumns.row(r.getId(), r.getDate(),
+                    TransactionType.toValue(r.getType()), Boolean.TRUE.equals(r.getReserved()),
+                    r.getCategory(), r.getAmountCents() != null ? r.getAmountCents() : 0)));
+        }
+        return LedgerColumns.of(version, rows);
+    }
+
+    /**
+     * Records a change the current transaction made to the user's ledger at
+     * {@code version}: ids in {@code removed} are gone and {@code written}
+     * holds new or updated rows. Once committed, a cached entry one version
+     * behind is moved forward; any other entry is dropped.
+     */
+    void recordChange(String email, long version, Collection<Long> removed, Collection<Transaction> written) {
+        if (email == null || !cache.asMap().containsKey(email)) return;
+
+        // Copied now, the entities may still be touched before commit
+        List<Long> removedIds = List.copyOf(removed);
+        List<LedgerColumns.Row> rows = new ArrayList<>(written.size());
+        for (Transaction t : written) {
+            LedgerColumns.Row row = LedgerColumns.row(t);
+            if (row != null) rows.add(row);
+        }
+
+        Runnable apply = () -> cache.asMap().computeIfPresent(email, (k, columns) ->
+                columns.version() == version - 1 ? columns.apply(version, removedIds, rows) : null);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package com.budgetwise.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+
+import com.budgetwise.dto.ChangeCursor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Per-user channel of "your ledger changed" events for open clients. An
+ * event carries only the new ledger version; the client then pulls the
+ * rows through the delta sync.
+ *
+ * Because only the latest version matters, every connection buffers at
+ * most one pending event, and bursts are coalesced to one event per
+ * {@code budgetwise.ledger.events.coalesce-window}. Publishing never waits
+ * for a subscriber: a slow connection simply sees fewer, later versions.
+ */
+@Component
+public class LedgerChangeNotifier {
+
+    // One hot sink per user with open connections
+    private static final class Channel {
+        final Sinks.Many<Long> sink = Sinks.many().multicast().directBestEffort();
+        final AtomicInteger subscribers = new AtomicInteger();
+    }
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter publishedCounter;
+    private final Duration coalesceWindow;
+    private final Duration heartbeat;
+    private final int maxPerUser;
+
+    public LedgerChangeNotifier(MeterRegistry meterRegistry,
+                                @Value("${budgetwise.ledger.events.coalesce-window:250ms}") Duration coalesceWindow,
+                                @Value("${budgetwise.ledger.events.heartbeat:25s}") Duration heartbeat,
+                                @Value("${budgetwise.ledger.events.max-per-user:8}") int maxPerUser) {
+        this.coalesceWindow = coalesceWindow;
+        this.heartbeat = heartbeat;
+        this.maxPerUser = maxPerUser;
+        this.publishedCounter = Counter.builder("budgetwise.ledger.events.published")
+                .description("Ledger change events offered to open connections")
+                .register(meterRegistry);
+        Gauge.builder("budgetwise.ledger.events.connections", connections, AtomicInteger::get)
+                .description("Open ledger event connections")
+                .register(meterRegistry);
+    }
+
+    /** Called after the commit that moved the user's ledger to {@code version}. */
+    public void publish(String email, long version) {
+        Channel channel = channels.get(email);
+        if (channel == null) return;
+
+        // Sinks reject concurrent emitters instead of blocking; commits for one
+        // user are already serialised, so this lock is practically uncontended
+        synchronized (channel) {
+            channel.sink.tryEmitNext(version);
+        }
+        publishedCounter.increment();
+    }
+
+    /**
+     * Opens a connection for the user: first {@code ready} with the current
+     * version and a delta-sync cursor for it, then one {@code ledger} event
+     * per coalesced change, with comment heartbeats in between. Returns null
+     * when the user already has {@code max-per-user} connections.
+     */
+    public Flux<ServerSentEvent<String>> subscribe(String email, LongSupplier currentVersion) {
+        Channel channel = channels.compute(email, (k, existing) -> {
+            Channel c = existing != null ? existing : new Channel();
+            c.subscribers.incrementAndGet();
+            return c;
+        });
+        if (channel.subscribers.get() > maxPerUser) {
+            release(email, channel);
+            return null;
+        }
+        connections.incrementAndGet();
+
+        Flux<ServerSentEvent<String>> changes = channel.sink.asFlux()
+                .sample(coalesceWindow)
+                .onBackpressureLatest()
+                .map(version -> ServerSentEvent.<String>builder()
+                        .event("ledger")
+                        .id(String.valueOf(version))
+                        .data("{\"version\":" + version + "}")
+                        .build());
+
+        // Already subscribed to changes when the current version is read,
+        // so a commit in between can't fall through the gap
+        Flux<ServerSentEvent<String>> ready = Flux.defer(() -> {
+            long version = currentVersion.getAsLong();
+            String cursor = new ChangeCursor(version, Instant.now()).encode();
+            return Flux.just(ServerSentEvent.<String>builder()
+                    .event("ready")
+                    .id(String.valueOf(version))
+                    .data("{\"version\":" + version + ",\"cursor\":\"" + cursor + "\"}")
+                    .build());
+        });
+
+        Flux<ServerSentEvent<String>> keepAlive = Flux.interval(heartbeat)
+                .onBackpressureDrop()
+                .map(i -> ServerSentEvent.<String>builder().comment("keep-alive").build());
+
+        return Flux.merge(changes, ready, keepAlive)
+                .doFinally(signal -> {
+                    connections.decrementAndGet();
+                    release(email, channel);
+                });
+    }
+
+    private void release(String email, Channel channel) {
+        channels.computeIfPresent(email, (k, c) ->
+                c == channel && c.subscribers.decrementAndGet() == 0 ? null : c);
+    }
+}
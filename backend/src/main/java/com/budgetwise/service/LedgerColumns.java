@@ -0,0 +1,264 @@
+package com.budgetwise.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.budgetwise.model.Transaction;
+
+/**
+ * One user's dated transactions as primitive columns sorted by day, with
+ * prefix sums per summary type and per category. Any date-range total is
+ * two binary searches and a subtraction, with no allocation.
+ *
+ * Instances are immutable. A change builds the next instance from this
+ * one's columns in O(n), without going back to the database.
+ */
+final class LedgerColumns {
+
+    // How the dashboard summary treats a row; see TransactionService.getSummary
+    static final byte INCOME = 0;
+    static final byte EXPENSE = 1;
+    static final byte RESERVED_INCOME = 2; // type "income" with the reserved flag
+    static final byte RESERVED = 3;        // type "reserved" with the reserved flag
+    static final byte OTHER = 4;           // not counted anywhere
+    private static final int TYPES = 5;
+
+    /** One row as the cache sees it; amount in cents. */
+    record Row(long id, int day, long cents, String category, byte type) {}
+
+    private static final Comparator<Row> BY_DAY = Comparator.comparingInt(Row::day).thenComparingLong(Row::id);
+
+    // Dates sorted by day, with the sum of one category's rows up to each of them
+    private static final class Series {
+        final int[] days;
+        final long[] prefix;
+
+        Series(int size) {
+            days = new int[size];
+            prefix = new long[size + 1];
+        }
+
+        int count(int fromDay, int toDay) {
+            if (fromDay > toDay) return 0;
+            return upperBound(days, days.length, toDay) - lowerBound(days, days.length, fromDay);
+        }
+
+        long sum(int fromDay, int toDay) {
+            if (fromDay > toDay) return 0;
+            return prefix[upperBound(days, days.length, toDay)] - prefix[lowerBound(days, days.length, fromDay)];
+        }
+    }
+
+    private final long version;
+    private final String[] categoryNames; // sorted, index = category id
+    private final long[] ids;
+    private final int[] days;
+    private final long[] cents;
+    private final short[] categories;
+    private final byte[] types;
+    private final long[][] typePrefix;    // [type][i] = cents of that type in rows [0, i)
+    private final Series[] expenses;      // [category] expense rows
+    private final Series[] reserved;      // [category] reserved income of either kind
+
+    private LedgerColumns(long version, String[] categoryNames, List<Row> sorted) {
+        int n = sorted.size();
+        this.version = version;
+        this.categoryNames = categoryNames;
+        this.ids = new long[n];
+        this.days = new int[n];
+        this.cents = new long[n];
+        this.categories = new short[n];
+        this.types = new byte[n];
+        this.typePrefix = new long[TYPES][n + 1];
+
+        int[] expenseCounts = new int[categoryNames.length];
+        int[] reservedCounts = new int[categoryNames.length];
+        for (int i = 0; i < n; i++) {
+            Row row = sorted.get(i);
+            short category = (short) Arrays.binarySearch(categoryNames, row.category());
+            ids[i] = row.id();
+            days[i] = row.day();
+            cents[i] = row.cents();
+            categories[i] = category;
+            types[i] = row.type();
+            for (int t = 0; t < TYPES; t++) {
+                typePrefix[t][i + 1] = typePrefix[t][i] + (t == row.type() ? row.cents() : 0);
+            }
+            if (row.type() == EXPENSE) expenseCounts[category]++;
+            if (isReserved(row.type())) reservedCounts[category]++;
+        }
+
+        this.expenses = new Series[categoryNames.length];
+        this.reserved = new Series[categoryNames.length];
+        for (int c = 0; c < categoryNames.length; c++) {
+            expenses[c] = new Series(expenseCounts[c]);
+            reserved[c] = new Series(reservedCounts[c]);
+            expenseCounts[c] = 0;
+            reservedCounts[c] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            Series series;
+            int at;
+            if (types[i] == EXPENSE) {
+                series = expenses[categories[i]];
+                at = expenseCounts[categories[i]]++;
+            } else if (isReserved(types[i])) {
+                series = reserved[categories[i]];
+                at = reservedCounts[categories[i]]++;
+            } else {
+                continue;
+            }
+            series.days[at] = days[i];
+            series.prefix[at + 1] = series.prefix[at] + cents[i];
+        }
+    }
+
+    /**
+     * Builds the columns for a ledger at {@code version}, or returns null
+     * when its categories don't fit a {@code short} id.
+     */
+    static LedgerColumns of(long version, Collection<Row> rows) {
+        Set<String> names = new TreeSet<>();
+        for (Row row : rows) names.add(row.category());
+        if (names.size() > Short.MAX_VALUE) return null;
+
+        List<Row> sorted = new ArrayList<>(rows);
+        sorted.sort(BY_DAY);
+        return new LedgerColumns(version, names.toArray(new String[0]), sorted);
+    }
+
+    /**
+     * The next version of this ledger: rows whose id is in {@code removed}
+     * or {@code written} are dropped, then {@code written} is added. Applying
+     * a change the columns already contain is harmless.
+     */
+    LedgerColumns apply(long nextVersion, Collection<Long> removed, Collection<Row> written) {
+        Set<Long> replaced = new HashSet<>(removed);
+        for (Row row : written) replaced.add(row.id());
+
+        List<Row> rows = new ArrayList<>(ids.length + written.size());
+        for (int i = 0; i < ids.length; i++) {
+            if (replaced.contains(ids[i])) continue;
+            rows.add(new Row(ids[i], days[i], cents[i], categoryNames[categories[i]], types[i]));
+        }
+        rows.addAll(written);
+        return of(nextVersion, rows);
+    }
+
+    /** The row the cache keeps for a transaction, or null when it has no date. */
+    static Row row(Long id, LocalDate date, String type, boolean reservedFlag, String category, long cents) {
+        if (id == null || date == null) return null;
+        return new Row(id, (int) date.toEpochDay(), cents,
+                category != null ? category : "Uncategorized",
+                typeOf(type, reservedFlag));
+    }
+
+    static Row row(Transaction t) {
+        return row(t.getId(), t.getDate(), t.getType(), t.isReserved(), t.getCategory(), t.getAmountCents());
+    }
+
+    static byte typeOf(String type, boolean reservedFlag) {
+        if (reservedFlag && "income".equals(type)) return RESERVED_INCOME;
+        if (reservedFlag && "reserved".equals(type)) return RESERVED;
+        if ("income".equals(type)) return INCOME;
+        if ("expense".equals(type)) return EXPENSE;
+        return OTHER;
+    }
+
+    private static boolean isReserved(byte type) {
+        return type == RESERVED_INCOME || type == RESERVED;
+    }
+
+    // -------------------
+    // READ
+    // -------------------
+    long version() {
+        return version;
+    }
+
+    /** Cents of one type dated within [fromDay, toDay]. */
+    long sum(byte type, int fromDay, int toDay) {
+        if (fromDay > toDay) return 0;
+        return typePrefix[type][upperBound(days, days.length, toDay)]
+                - typePrefix[type][lowerBound(days, days.length, fromDay)];
+    }
+
+    /** Index of the first row dated on or after {@code day}. */
+    int indexFrom(int day) {
+        return lowerBound(days, days.length, day);
+    }
+
+    /** Index just past the last row dated on or before {@code day}. */
+    int indexAfter(int day) {
+        return upperBound(days, days.length, day);
+    }
+
+    int dayAt(int index) {
+        return days[index];
+    }
+
+    int categoryCount() {
+        return categoryNames.length;
+    }
+
+    String categoryName(int category) {
+        return categoryNames[category];
+    }
+
+    int expenseCount(int category, int fromDay, int toDay) {
+        return expenses[category].count(fromDay, toDay);
+    }
+
+    long expenseSum(int category, int fromDay, int toDay) {
+        return expenses[category].sum(fromDay, toDay);
+    }
+
+    int reservedCount(int category, int fromDay, int toDay) {
+        return reserved[category].count(fromDay, toDay);
+    }
+
+    long reservedSum(int category, int fromDay, int toDay) {
+        return reserved[category].sum(fromDay, toDay);
+    }
+
+    /** Approximate heap footprint, used as the cache weight. */
+    long sizeInBytes() {
+        long n = ids.length;
+        long bytes = 128 + n * (8 + 4 + 8 + 2 + 1) + (long) TYPES * 8 * (n + 1);
+        for (int c = 0; c < categoryNames.length; c++) {
+            bytes += 96 + 2L * categoryNames[c].length()
+                    + 12L * (expenses[c].days.length + reserved[c].days.length) + 16;
+        }
+        return bytes;
+    }
+
+    // -------------------
+    // BINARY SEARCH
+    // -------------------
+    private static int lowerBound(int[] sorted, int size, int key) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int upperBound(int[] sorted, int size, int key) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
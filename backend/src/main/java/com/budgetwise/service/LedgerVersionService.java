@@ -0,0 +1,96 @@
+package com.budgetwise.service;
+
+import com.budgetwise.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Per-user counter of ledger changes, used as the ETag of transaction
+ * reads and as the delta-sync cursor. Writers bump it inside the
+ * transaction that changes the ledger, so a reader can never see new rows
+ * under an old version. Open clients are told about the new version once
+ * that transaction commits.
+ */
+@Service
+public class LedgerVersionService {
+
+    private final UserRepository userRepository;
+    private final LedgerChangeNotifier notifier;
+
+    public LedgerVersionService(UserRepository userRepository, LedgerChangeNotifier notifier) {
+        this.userRepository = userRepository;
+        this.notifier = notifier;
+    }
+
+    /**
+     * Bumps the user's version and returns the new value, which the caller
+     * stamps on the rows it writes. The update locks the user row, so
+     * concurrent writers for one user commit their versions in order.
+     */
+    public long next(String email) {
+        if (email == null) return 0;
+        userRepository.bumpLedgerVersions(List.of(email));
+        long version = current(email);
+        publishAfterCommit(email, version);
+        return version;
+    }
+
+    public void bump(Collection<String> emails) {
+        if (emails.isEmpty()) return;
+        userRepository.bumpLedgerVersions(emails);
+        for (UserRepository.EmailLedgerVersion v : userRepository.findLedgerVersions(emails)) {
+            publishAfterCommit(v.getEmail(), v.getLedgerVersion());
+        }
+    }
+
+    // Subscribers only ever hear about committed versions, and never on the writer's time
+    private void publishAfterCommit(String email, long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifier.publish(email, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifier.publish(email, version);
+            }
+        });
+    }
+
+    // 0 for rows whose owner has no account, e.g. fixtures written straight to the table
+    public long current(String email) {
+        UserRepository.LedgerVersion version = userRepository.findLedgerVersion(email);
+        return version != null ? version.getLedgerVersion() : 0;
+    }
+
+    /**
+     * Strong ETag for one view of the user's ledger, or null for an unknown
+     * user. The user id keeps two accounts at the same version apart;
+     * {@code variant} separates responses that differ by query parameters,
+     * by the first 128 bits of its SHA-256 so no two variants share a tag.
+     */
+    public String etag(String email, String variant) {
+        UserRepository.LedgerVersion version = userRepository.findLedgerVersion(email);
+        if (version == null) return null;
+        return "\"" + version.getId() + "." + version.getLedgerVersion()
+                + "." + digest(variant) + "\"";
+    }
+
+    private static String digest(String variant) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(variant.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.MonthlyRollup;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.TransactionType;
+import com.budgetwise.repository.MonthlyRollupRepository;
+import com.budgetwise.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the monthly_rollup table. Callers apply signed deltas inside their
+ * own transaction; {@link #verify()} and {@link #rebuild()} recompute the
+ * rollups from the raw transactions table.
+ */
+@Service
+public class MonthlyRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlyRollupService.class);
+
+    private final MonthlyRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final AdvisorResponseCache advisorCache;
+
+    public MonthlyRollupService(MonthlyRollupRepository rollupRepository,
+                                TransactionRepository transactionRepository,
+                                PlatformTransactionManager transactionManager,
+                                AdvisorResponseCache advisorCache) {
+        this.rollupRepository = rollupRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.advisorCache = advisorCache;
+    }
+
+    public record Key(String userEmail, String period, String type, String category) {}
+
+    // Totals in cents, as stored
+    public record Drift(Key key, long expectedTotal, long actualTotal,
+                        long expectedCount, long actualCount) {}
+
+    // -------------------
+    // INCREMENTAL MAINTENANCE
+    // -------------------
+
+    /** Adds (sign = 1) or removes (sign = -1) one transaction's contribution. */
+    public void apply(Transaction t, int sign) {
+        if (t == null || t.getUserEmail() == null || t.getDate() == null) return;
+
+        applyDelta(t.getUserEmail(),
+                period(t.getDate().getYear(), t.getDate().getMonthValue()),
+                rollupType(t.getType(), t.isReserved()),
+                t.getCategory(),
+                sign * t.getAmountCents(),
+                sign);
+    }
+
+    public void applyDelta(String email, String period, String type, String category,
+                           long deltaCents, long count) {
+        rollupRepository.applyDelta(email, period, type,
+                category != null ? category : "", deltaCents, count);
+        // Every ledger change passes through here, so cached advice can't outlive it;
+        // the cache drops the user once, when the caller's transaction commits
+        advisorCache.invalidateUser(email);
+    }
+
+    /** Adds one transaction's signed contribution, {cents, count}, to a map of pending deltas. */
+    public static void accumulate(Map<Key, long[]> deltas, Transaction t, int sign) {
+        if (t == null || t.getUserEmail() == null || t.getDate() == null) return;
+
+        Key key = new Key(t.getUserEmail(),
+                period(t.getDate().getYear(), t.getDate().getMonthValue()),
+                rollupType(t.getType(), t.isReserved()),
+                t.getCategory() != null ? t.getCategory() : "");
+        long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+        delta[0] += sign * t.getAmountCents();
+        delta[1] += sign;
+    }
+
+    // One upsert per (month, type, category) instead of one per row; entries that
+    // cancel out, e.g. an edit that kept amount and category, are skipped
+    public void applyDeltas(Map<Key, long[]> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta[0] == 0 && delta[1] == 0) return;
+            applyDelta(key.userEmail(), key.period(), key.type(), key.category(),
+                    delta[0], delta[1]);
+        });
+    }
+
+    // Reserved income is rolled up under its own type so reports can tell it apart
+    public static String rollupType(String type, boolean reserved) {
+        if (reserved && ("income".equals(type) || "reserved".equals(type))) return "reserved";
+        return type != null ? type : "";
+    }
+
+    public static String period(int year, int month) {
+        return String.format("%04d-%02d", year, month);
+    }
+
+    // -------------------
+    // READ
+    // -------------------
+    /** Cents per rollup type over the user's whole ledger. */
+    public Map<String, Long> totalsByType(String email) {
+        Map<String, Long> totals = new HashMap<>();
+        for (MonthlyRollupRepository.TypeTotal row : rollupRepository.sumByType(email)) {
+            totals.put(row.getType(), row.getTotalCents() != null ? row.getTotalCents() : 0);
+        }
+        return totals;
+    }
+
+    // -------------------
+    // VERIFY / REBUILD
+    // -------------------
+    public List<Drift> verify() {
+        List<Drift> drifts = new ArrayList<>();
+        for (String email : transactionRepository.findDistinctUserEmails()) {
+            drifts.addAll(verify(email));
+        }
+        return drifts;
+    }
+
+    // Templates rather than @Transactional: verify() and rebuild() call these on
+    // this instance, past the proxy. The ledger and the rollups are read in one
+    // transaction so they are compared at the same point.
+    public List<Drift> verify(String email) {
+        return readOnlyTemplate.execute(status -> compare(email));
+    }
+
+    private List<Drift> compare(String email) {
+        Map<Key, long[]> expected = recompute(email);
+        Map<Key, long[]> actual = new HashMap<>();
+        for (MonthlyRollup r : rollupRepository.findByUserEmail(email)) {
+            actual.put(new Key(r.getUserEmail(), r.getPeriod(), r.getType(), r.getCategory()),
+                    new long[]{r.getTotalCents(), r.getTxCount()});
+        }
+
+        Set<Key> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+
+        List<Drift> drifts = new ArrayList<>();
+        for (Key key : keys) {
+            long[] e = expected.getOrDefault(key, new long[2]);
+            long[] a = actual.getOrDefault(key, new long[2]);
+            if (e[0] != a[0] || e[1] != a[1]) {
+                drifts.add(new Drift(key, e[0], a[0], e[1], a[1]));
+            }
+        }
+        return drifts;
+    }
+
+    // One transaction per user keeps a full rebuild from holding locks on every rollup row
+    public int rebuild() {
+        int users = 0;
+        for (String email : transactionRepository.findDistinctUserEmails()) {
+            rebuild(email);
+            users++;
+        }
+        return users;
+    }
+
+    public void rebuild(String email) {
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.deleteByUserEmail(email);
+            recompute(email).forEach((key, totals) ->
+                    applyDelta(key.userEmail(), key.period(), key.type(), key.category(),
+                            totals[0], totals[1]));
+        });
+    }
+
+    private Map<Key, long[]> recompute(String email) {
+        Map<Key, long[]> totals = new HashMap<>();
+        for (TransactionRepository.RollupSource row : transactionRepository.sumForRollup(email)) {
+            Key key = new Key(email,
+                    period(row.getYear(), row.getMonth()),
+                    rollupType(TransactionType.toValue(row.getType()), Boolean.TRUE.equals(row.getReserved())),
+                    row.getCategory() != null ? row.getCategory() : "");
+            long[] t = totals.computeIfAbsent(key, k -> new long[2]);
+            t[0] += row.getTotalCents() != null ? row.getTotalCents() : 0;
+            t[1] += row.getCount() != null ? row.getCount() : 0;
+        }
+        return totals;
+    }
+
+    public void logDrift(List<Drift> drifts) {
+        if (drifts.isEmpty()) {
+            log.info("Monthly rollups match the transactions table");
+            return;
+        }
+        for (Drift d : drifts) {
+            log.warn("Rollup drift {}: expected cents={} count={}, actual cents={} count={}",
+                    d.key(), d.expectedTotal(), d.expectedCount(), d.actualTotal(), d.actualCount());
+        }
+        log.warn("{} monthly rollup rows drifted", drifts.size());
+    }
+}
@@ -0,0 +1,116 @@
+package com.budgetwise.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OFX statement, either the SGML flavour (1.x, closing tags optional) or
+ * XML (2.x). Only STMTTRN blocks are read; the amount's sign decides between
+ * income and expense, as OFX prescribes.
+ */
+class OfxStatementReader implements StatementReader {
+
+    private final BufferedReader reader;
+    private long line = 1;
+    private int pushback = -1;
+    private String value;
+
+    OfxStatementReader(Reader reader) {
+        this.reader = new BufferedReader(reader, 64 * 1024);
+    }
+
+    @Override
+    public Row next() throws IOException {
+        Map<String, String> fields = null;
+        long startLine = 0;
+
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                fields = new HashMap<>();
+                startLine = line;
+            } else if (fields != null && tag.equals("/STMTTRN")) {
+                return toRow(startLine, fields);
+            } else if (fields != null && !tag.startsWith("/") && !value.isEmpty()) {
+                fields.put(tag, value);
+            }
+        }
+        return fields != null ? Row.failed(startLine, "Unterminated STMTTRN block") : null;
+    }
+
+    private Row toRow(long startLine, Map<String, String> fields) {
+        try {
+            String posted = fields.get("DTPOSTED");
+            // 20240115, 20240115120000 or 20240115120000.000[-5:EST]
+            if (posted == null || posted.length() < 8) {
+                throw new IllegalArgumentException("DTPOSTED is missing");
+            }
+            LocalDate date = LocalDate.of(
+                    Integer.parseInt(posted.substring(0, 4)),
+                    Integer.parseInt(posted.substring(4, 6)),
+                    Integer.parseInt(posted.substring(6, 8)));
+
+            return Row.ok(startLine, StatementReader.toTransaction(
+                    date,
+                    null,
+                    fields.get("NAME"),
+                    null,
+                    StatementReader.parseAmount(fields.get("TRNAMT")),
+                    fields.get("MEMO")));
+        } catch (NumberFormatException | DateTimeException e) {
+            return Row.failed(startLine, "Unrecognised DTPOSTED '" + fields.get("DTPOSTED") + "'");
+        } catch (IllegalArgumentException e) {
+            return Row.failed(startLine, e.getMessage());
+        }
+    }
+
+    // Reads "<TAG>text" and returns TAG, leaving the trimmed text in value
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // skip headers and whitespace between elements
+        }
+        if (c == -1) return null;
+
+        StringBuilder tag = new StringBuilder();
+        while ((c = read()) != -1 && c != '>') tag.append((char) c);
+
+        StringBuilder text = new StringBuilder();
+        while ((c = read()) != -1 && c != '<') text.append((char) c);
+        if (c == '<') pushback = c;
+
+        value = unescape(text.toString().trim());
+        return tag.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    private int read() throws IOException {
+        if (pushback != -1) {
+            int c = pushback;
+            pushback = -1;
+            return c;
+        }
+        int c = reader.read();
+        if (c == '\n') line++;
+        return c;
+    }
+
+    private static String unescape(String text) {
+        if (text.indexOf('&') < 0) return text;
+        return text.replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
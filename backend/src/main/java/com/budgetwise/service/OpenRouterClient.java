@@ -0,0 +1,191 @@
+package com.budgetwise.service;
+
+import com.budgetwise.dto.ChatCompletionRequest;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Transport for OpenRouter chat completions. One shared {@link HttpClient}
+ * keeps connections alive and pooled between calls and negotiates HTTP/2 over
+ * TLS; streamed answers go through a Reactor Netty {@link WebClient}, which
+ * pools its own connections.
+ *
+ * Request bodies are written from {@link ChatCompletionRequest} with the
+ * application's {@link ObjectMapper}; blocking responses are read token by
+ * token only as far as {@code choices[0].message.content}.
+ */
+@Component
+public class OpenRouterClient {
+
+    private final URI apiUrl;
+    private final String apiKey;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final WebClient webClient;
+    private final Duration readTimeout;
+
+    public OpenRouterClient(@Value("${openrouter.api.key}") String apiKey,
+                            @Value("${openrouter.api.url}") String apiUrl,
+                            ObjectMapper objectMapper,
+                            WebClient.Builder webClientBuilder,
+                            AiResilienceProperties resilience) {
+        this.apiKey = Objects.requireNonNull(apiKey, "OpenRouter API key must not be null");
+        this.apiUrl = URI.create(Objects.requireNonNull(apiUrl, "OpenRouter API URL must not be null"));
+        this.objectMapper = objectMapper;
+        this.readTimeout = resilience.readTimeout();
+        this.webClient = webClientBuilder.build();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(resilience.connectTimeout())
+                .build();
+    }
+
+    // -------------------
+    // BLOCKING COMPLETION
+    // -------------------
+    public String complete(ChatCompletionRequest request) {
+        HttpRequest httpRequest = HttpRequest.newBuilder(apiUrl)
+                // h2c upgrades confuse plain HTTP/1.1 proxies and stubs; HTTP/2 is negotiated over TLS only
+                .version("https".equalsIgnoreCase(apiUrl.getScheme())
+                        ? HttpClient.Version.HTTP_2
+                        : HttpClient.Version.HTTP_1_1)
+                .timeout(readTimeout)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .header("Accept", MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(request)))
+                .build();
+
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for OpenRouter", e);
+        }
+
+        try (InputStream body = response.body()) {
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("OpenRouter returned HTTP " + response.statusCode());
+            }
+
+            String content;
+            try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+                content = firstMessageContent(parser);
+            }
+            // Parsing stops at the content; the rest is only drained so the connection can be reused
+            body.transferTo(OutputStream.nullOutputStream());
+
+            if (content == null) {
+                throw new IllegalStateException("OpenRouter response had no message content");
+            }
+            return content;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Walks {"choices":[{"message":{"content":...}}]} and stops at the first content
+    static String firstMessageContent(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"choices".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String choiceField = parser.currentName();
+                JsonToken choiceValue = parser.nextToken();
+                if (!"message".equals(choiceField) || choiceValue != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String messageField = parser.currentName();
+                    parser.nextToken();
+                    if ("content".equals(messageField)) return parser.getValueAsString();
+                    parser.skipChildren();
+                }
+                return null;
+            }
+            return null;
+        }
+        return null;
+    }
+
+    // -------------------
+    // STREAMED COMPLETION
+    // -------------------
+    public Flux<String> stream(ChatCompletionRequest request) {
+        return webClient.post()
+                .uri(apiUrl)
+                .headers(h -> h.setBearerAuth(apiKey))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(request.streaming())
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                // Keep-alive comments carry no data
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !"[DONE]".equals(data.trim()))
+                .mapNotNull(this::deltaContent)
+                // Deadline between chunks rather than for the whole answer
+                .timeout(readTimeout);
+    }
+
+    private String deltaContent(String chunk) {
+        try {
+            JsonNode content = objectMapper.readTree(chunk)
+                    .path("choices")
+                    .path(0)
+                    .path("delta")
+                    .path("content");
+            return content.isTextual() && !content.asText().isEmpty() ? content.asText() : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        httpClient.close();
+    }
+
+    private byte[] toJson(ChatCompletionRequest request) {
+        try {
+            return objectMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable chat request", e);
+        }
+    }
+}
@@ -1,74 +1,78 @@
 package com.budgetwise.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import com.budgetwise.dto.ChatCompletionRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
 
+import java.util.List;
 import java.util.Objects;
 
 @Service
 public class OpenRouterService {
 
-    @Value("${openrouter.api.key}")
-    private String apiKey;
+    private static final Logger log = LoggerFactory.getLogger(OpenRouterService.class);
 
-    @Value("${openrouter.api.url}")
-    private String apiUrl; // e.g., https://openrouter.ai/api/v1/chat/completions
-
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OpenRouterClient client;
+    private final AiCallGuard callGuard;
 
     private final int FREE_PLAN_MAX_TOKENS = 285; // free plan token limit
 
-    public String askOpenRouter(String prompt) {
-        try {
-            String safeApiKey = Objects.requireNonNull(apiKey, "OpenRouter API key must not be null");
-            String safePrompt = Objects.requireNonNull(prompt, "Prompt must not be null");
-
-            // Truncate prompt if too long
-            if (safePrompt.length() > 2000) { 
-                safePrompt = safePrompt.substring(safePrompt.length() - 2000);
-            }
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(safeApiKey);
+    public static final String FALLBACK_RESPONSE =
+            "AI could not generate a full response due to free plan limits. Try asking shorter questions or upgrade your plan.";
 
-            String requestBody = """
-            {
-              "model": "openai/gpt-4",
-              "messages": [
-                {"role": "system", "content": "You are a concise, friendly financial assistant."},
-                {"role": "user", "content": "%s"}
-              ],
-              "temperature": 0.7,
-              "max_tokens": %d
-            }
-            """.formatted(safePrompt.replace("\"", "\\\""), FREE_PLAN_MAX_TOKENS);
-
-            HttpEntity<String> request = new HttpEntity<>(requestBody, headers);
+    public OpenRouterService(OpenRouterClient client, AiCallGuard callGuard) {
+        this.client = client;
+        this.callGuard = callGuard;
+    }
 
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    Objects.requireNonNull(apiUrl, "OpenRouter API URL must not be null"),
-                    request,
-                    String.class
-            );
+    // Throws AiUnavailableException when the call is refused by the bulkhead or circuit breaker
+    public String askOpenRouter(String prompt) {
+        ChatCompletionRequest request = buildRequest(prompt);
+        try {
+            // Any exception from the client counts as a failed call for the circuit breaker
+            return callGuard.execute(() -> client.complete(request));
+        } catch (AiUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("OpenRouter call failed, answering with the fallback", e);
+            // Fallback if free plan exceeded or error occurs
+            return FALLBACK_RESPONSE;
+        }
+    }
 
-            JsonNode root = objectMapper.readTree(response.getBody());
+    // Relays the completion token by token; cancelling the Flux aborts the upstream call
+    public Flux<String> streamOpenRouter(String prompt) {
+        ChatCompletionRequest request = buildRequest(prompt);
+
+        // The bulkhead permit is held from subscription until the stream ends or is cancelled
+        return Flux.defer(() -> {
+            AiCallGuard.Permit permit = callGuard.acquire(false);
+            return client.stream(request)
+                    .doOnComplete(permit::success)
+                    .doOnError(e -> permit.failure())
+                    .doOnCancel(permit::cancel);
+        });
+    }
 
-            return root.path("choices")
-                    .get(0)
-                    .path("message")
-                    .path("content")
-                    .asText();
+    private ChatCompletionRequest buildRequest(String prompt) {
+        String safePrompt = Objects.requireNonNull(prompt, "Prompt must not be null");
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            // Fallback if free plan exceeded or error occurs
-            return "AI could not generate a full response due to free plan limits. Try asking shorter questions or upgrade your plan.";
+        // Truncate prompt if too long
+        if (safePrompt.length() > 2000) {
+            safePrompt = safePrompt.substring(safePrompt.length() - 2000);
         }
+
+        return new ChatCompletionRequest(
+                "openai/gpt-4",
+                List.of(
+                        new ChatCompletionRequest.Message("system", "You are a concise, friendly financial assistant."),
+                        new ChatCompletionRequest.Message("user", safePrompt)
+                ),
+                0.7,
+                FREE_PLAN_MAX_TOKENS,
+                null
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.budgetwise.service;
+
+import com.budgetwise.repository.OtpVerificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes OTP rows that are used or expired, in batches of
+ * {@code budgetwise.otp.purge.batch-size}, so the table only ever holds
+ * codes that could still verify.
+ */
+@Component
+public class OtpPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OtpPurgeJob.class);
+
+    private final OtpVerificationRepository otpRepository;
+
+    @Value("${budgetwise.otp.purge.batch-size:500}")
+    private int batchSize;
+
+    public OtpPurgeJob(OtpVerificationRepository otpRepository) {
+        this.otpRepository = otpRepository;
+    }
+
+    @Scheduled(cron = "${budgetwise.otp.purge.cron:0 */15 * * * *}")
+    public void run() {
+        int purged = purge(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} used or expired OTPs", purged);
+        }
+    }
+
+    public int purge(LocalDateTime now) {
+        int size = Math.max(batchSize, 1);
+        int total = 0;
+
+        List<Long> ids;
+        do {
+            ids = otpRepository.findPurgeableIds(now, PageRequest.of(0, size));
+            if (!ids.isEmpty()) {
+                otpRepository.deleteAllByIdInBatch(ids);
+                total += ids.size();
+            }
+        } while (ids.size() == size);
+
+        return total;
+    }
+}
@@ -3,10 +3,8 @@ package com.budgetwise.service;
 import com.budgetwise.model.OtpVerification;
 import com.budgetwise.repository.OtpVerificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -16,24 +14,19 @@ import java.util.Random;
 public class OtpService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxService emailOutbox;
 
     @Autowired
     private OtpVerificationRepository otpRepository;
 
     // ================= SEND OTP =================
+    @Transactional
     public void sendOtp(String email) {
 
         String otp = String.valueOf(100000 + new Random().nextInt(900000));
 
-        // Invalidate old OTPs
-        otpRepository.findAll()
-                .stream()
-                .filter(o -> email.equals(o.getEmail()) && !o.isUsed())
-                .forEach(o -> {
-                    o.setUsed(true);
-                    otpRepository.save(o);
-                });
+        // Invalidate old OTPs in one indexed UPDATE
+        otpRepository.invalidateActive(email);
 
         // Save new OTP
         OtpVerification otpVerification = new OtpVerification();
@@ -44,11 +37,8 @@ public class OtpService {
 
         otpRepository.save(otpVerification);
 
-        // Send mail
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(email);
-            message.setText(
+        // Queue mail; it is sent by EmailOutboxWorker once this transaction commits
+        emailOutbox.enqueue(email, null,
             "Dear User,\n\n" +
             "Welcome to BudgetWise! 💼📊\n\n" +
             "To complete your email verification, please use the One-Time Password (OTP) below:\n\n" +
@@ -58,13 +48,7 @@ public class OtpService {
             "Best Regards,\n" +
             "Team BudgetWise\n" +
             "Secure • Smart • Simple"
-);
-
-            mailSender.send(message);
-
-        } catch (MailException e) {
-            throw new RuntimeException("Failed to send OTP");
-        }
+        );
     }
 
     // ================= VERIFY OTP =================
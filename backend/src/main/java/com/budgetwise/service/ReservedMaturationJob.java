@@ -0,0 +1,103 @@
+package com.budgetwise.service;
+
+import com.budgetwise.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Converts reserved transactions whose date has arrived into expenses for
+ * all users at once, so listing transactions stays a pure read.
+ *
+ * The due rows are updated with set-based statements over consecutive id
+ * windows of {@code budgetwise.maturation.chunk-size}, each committed on
+ * its own together with the matching monthly rollup deltas.
+ */
+@Component
+public class ReservedMaturationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservedMaturationJob.class);
+
+    private final TransactionRepository repository;
+    private final MonthlyRollupService rollupService;
+    private final LedgerVersionService ledgerVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter convertedCounter;
+    private final Timer runTimer;
+
+    @Value("${budgetwise.maturation.chunk-size:1000}")
+    private int chunkSize;
+
+    public ReservedMaturationJob(TransactionRepository repository,
+                                 MonthlyRollupService rollupService,
+                                 LedgerVersionService ledgerVersions,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.rollupService = rollupService;
+        this.ledgerVersions = ledgerVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.convertedCounter = Counter.builder("budgetwise.maturation.converted")
+                .description("Reserved transactions converted to expenses")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("budgetwise.maturation.duration")
+                .description("Time taken by one maturation run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${budgetwise.maturation.cron:0 5 * * * *}")
+    public void run() {
+        int converted = runTimer.record(() -> convertDue(LocalDate.now()));
+        if (converted > 0) {
+            log.info("Converted {} matured reserved transactions", converted);
+        }
+    }
+
+    // -------------------
+    // CONVERT RESERVED → EXPENSE
+    // -------------------
+    public int convertDue(LocalDate today) {
+        TransactionRepository.IdRange range = repository.findMaturedReservedIdRange(today);
+        if (range == null || range.getMinId() == null) return 0;
+
+        int step = Math.max(chunkSize, 1);
+        int total = 0;
+
+        for (long fromId = range.getMinId(); fromId <= range.getMaxId(); fromId += step) {
+            long chunkStart = fromId;
+            long chunkEnd = fromId + step - 1;
+            Integer updated = transactionTemplate.execute(status -> convertChunk(today, chunkStart, chunkEnd));
+            convertedCounter.increment(updated);
+            total += updated;
+        }
+
+        return total;
+    }
+
+    private int convertChunk(LocalDate today, long fromId, long toId) {
+        Set<String> owners = new HashSet<>();
+        // Converted rows move from the "reserved" rollup to "expense" in the same month
+        for (TransactionRepository.MaturedTotal row : repository.sumMaturedReserved(today, fromId, toId)) {
+            owners.add(row.getUserEmail());
+            String period = MonthlyRollupService.period(row.getYear(), row.getMonth());
+            long cents = row.getTotalCents() != null ? row.getTotalCents() : 0;
+            long count = row.getCount();
+            rollupService.applyDelta(row.getUserEmail(), period, "reserved", row.getCategory(), -cents, -count);
+            rollupService.applyDelta(row.getUserEmail(), period, "expense", row.getCategory(), cents, count);
+        }
+        // Bumped first so the conversion stamps the owners' new versions on the rows
+        ledgerVersions.bump(owners);
+        return repository.convertMaturedReserved(today, fromId, toId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.budgetwise.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-shot maintenance commands for the monthly_rollup table:
+ *
+ *   java -jar budgetwise.jar --rollup-verify    report drift, exit 1 if any
+ *   java -jar budgetwise.jar --rollup-rebuild   recompute from transactions
+ *
+ * Without either option the application starts normally. After a command
+ * BudgetwiseApplication closes the context through SpringApplication.exit,
+ * which picks up the exit code from here.
+ */
+@Component
+public class RollupCommandRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private final MonthlyRollupService rollupService;
+    private volatile boolean ranCommand;
+    private volatile int exitCode;
+
+    public RollupCommandRunner(MonthlyRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("rollup-rebuild")) {
+            rollupService.rebuild();
+            List<MonthlyRollupService.Drift> drifts = rollupService.verify();
+            rollupService.logDrift(drifts);
+            exit(drifts.isEmpty() ? 0 : 1);
+        } else if (args.containsOption("rollup-verify")) {
+            List<MonthlyRollupService.Drift> drifts = rollupService.verify();
+            rollupService.logDrift(drifts);
+            exit(drifts.isEmpty() ? 0 : 1);
+        }
+    }
+
+    private void exit(int code) {
+        exitCode = code;
+        ranCommand = true;
+    }
+
+    /** True once a maintenance command has run and the application should exit. */
+    public boolean ranCommand() {
+        return ranCommand;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
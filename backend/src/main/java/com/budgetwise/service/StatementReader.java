@@ -0,0 +1,142 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Forward-only reader over an uploaded bank statement. Each call to
+ * {@link #next()} reads just enough of the stream for one row, so a
+ * statement of any size is never held in memory.
+ */
+public interface StatementReader extends Closeable {
+
+    /** One statement row: either a transaction (without owner) or the reason it was rejected. */
+    record Row(long line, Transaction transaction, String error) {
+
+        static Row ok(long line, Transaction transaction) {
+            return new Row(line, transaction, null);
+        }
+
+        static Row failed(long line, String error) {
+            return new Row(line, null, error);
+        }
+    }
+
+    enum Format {
+        CSV, OFX;
+
+        // An explicit format wins; otherwise the file extension decides
+        public static Format of(String format, String filename) {
+            String name = format != null && !format.isBlank()
+                    ? format
+                    : filename != null && filename.contains(".")
+                            ? filename.substring(filename.lastIndexOf('.') + 1)
+                            : "";
+            return switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "csv", "txt" -> CSV;
+                case "ofx", "qfx" -> OFX;
+                default -> throw new IllegalArgumentException("format must be csv or ofx");
+            };
+        }
+    }
+
+    /**
+     * Returns the next row, or null at the end of the statement. Throws
+     * IllegalArgumentException when the statement as a whole is unreadable,
+     * e.g. a CSV without the required header columns.
+     */
+    Row next() throws IOException;
+
+    static StatementReader open(Format format, InputStream in) {
+        InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        return format == Format.OFX ? new OfxStatementReader(reader) : new CsvStatementReader(reader);
+    }
+
+    // -------------------
+    // SHARED ROW MAPPING
+    // -------------------
+    DateTimeFormatter DAY_FIRST = DateTimeFormatter.ofPattern("d/M/uuuu");
+    DateTimeFormatter DAY_FIRST_DASHED = DateTimeFormatter.ofPattern("d-M-uuuu");
+
+    static LocalDate parseDate(String text) {
+        if (text == null || text.isBlank()) throw new IllegalArgumentException("Date is missing");
+        String value = text.trim();
+        for (DateTimeFormatter format : new DateTimeFormatter[]{
+                DateTimeFormatter.ISO_LOCAL_DATE, DAY_FIRST, DAY_FIRST_DASHED}) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("Unrecognised date '" + value + "'");
+    }
+
+    // Accepts "₹1,250.00", "-12.5" and "(12.50)"
+    static BigDecimal parseAmount(String text) {
+        if (text == null || text.isBlank()) throw new IllegalArgumentException("Amount is missing");
+        String value = text.trim().replaceAll("[₹$€£,\\s]", "");
+        boolean negative = value.startsWith("(") && value.endsWith(")");
+        if (negative) value = value.substring(1, value.length() - 1);
+        try {
+            BigDecimal amount = new BigDecimal(value);
+            return negative ? amount.negate() : amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unrecognised amount '" + text.trim() + "'");
+        }
+    }
+
+    /**
+     * Validates one row and builds its transaction. Without an explicit type
+     * the amount's sign decides: negative is an expense, positive income.
+     */
+    static Transaction toTransaction(LocalDate date, String type, String title,
+                                     String category, BigDecimal amount, String description) {
+        if (amount.signum() == 0) throw new IllegalArgumentException("Amount must not be zero");
+
+        String normalizedType;
+        if (type == null || type.isBlank()) {
+            normalizedType = amount.signum() < 0 ? "expense" : "income";
+        } else {
+            normalizedType = switch (type.trim().toLowerCase(Locale.ROOT)) {
+                case "income", "credit", "cr" -> "income";
+                case "expense", "debit", "dr" -> "expense";
+                case "reserved" -> "reserved";
+                default -> throw new IllegalArgumentException("Unknown type '" + type.trim() + "'");
+            };
+        }
+
+        String safeTitle = firstNonBlank(title, description, "Imported transaction");
+        String safeDescription = description != null && !description.isBlank() ? description.trim() : null;
+
+        Transaction t = new Transaction();
+        t.setDate(date);
+        t.setType(normalizedType);
+        t.setTitle(truncate(safeTitle.trim(), 255));
+        t.setCategory(truncate(firstNonBlank(category, null, "Other").trim(), 255));
+        t.setAmount(amount.abs().doubleValue());
+        t.setDescription(truncate(safeDescription, 500));
+        t.setReserved("reserved".equals(normalizedType));
+        return t;
+    }
+
+    private static String firstNonBlank(String first, String second, String fallback) {
+        if (first != null && !first.isBlank()) return first;
+        if (second != null && !second.isBlank()) return second;
+        return fallback;
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+}
@@ -0,0 +1,156 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.TransactionType;
+import com.budgetwise.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's whole ledger, oldest first, straight from a forward-only
+ * result stream. Rows are encoded one at a time, so memory use does not
+ * grow with the size of the account.
+ *
+ * The CSV header uses the column names the statement import understands,
+ * so an export can be imported back.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,date,type,title,category,amount,reserved,description";
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        JSONL("application/x-ndjson", "jsonl");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() { return contentType; }
+        public String extension() { return extension; }
+
+        public static Format of(String format) {
+            return switch (format == null ? "" : format.trim().toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "jsonl", "ndjson" -> JSONL;
+                default -> throw new IllegalArgumentException("format must be csv or jsonl");
+            };
+        }
+    }
+
+    private final TransactionRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public TransactionExportService(TransactionRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Streams every transaction of the user to {@code out} and returns the row count. */
+    @Transactional(readOnly = true)
+    public long export(String email, Format format, OutputStream out) throws IOException {
+        if (email == null) throw new IllegalArgumentException("User email cannot be null");
+
+        try (Stream<TransactionRepository.ExportRow> rows = repository.streamForExport(email)) {
+            return format == Format.CSV
+                    ? writeCsv(rows.iterator(), out)
+                    : writeJsonLines(rows.iterator(), out);
+        }
+    }
+
+    private static long writeCsv(Iterator<TransactionRepository.ExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long count = 0;
+        while (rows.hasNext()) {
+            TransactionRepository.ExportRow row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(row.getDate() != null ? row.getDate().toString() : "");
+            writer.write(',');
+            writeCsvField(writer, TransactionType.toValue(row.getType()));
+            writer.write(',');
+            writeCsvField(writer, row.getTitle());
+            writer.write(',');
+            writeCsvField(writer, row.getCategory());
+            writer.write(',');
+            writer.write(formatAmount(row.getAmount()));
+            writer.write(',');
+            writer.write(Boolean.TRUE.equals(row.getReserved()) ? "true" : "false");
+            writer.write(',');
+            writeCsvField(writer, row.getDescription());
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) return;
+        // The import reader keeps one record per line, so line breaks become spaces
+        String text = value.replace('\r', ' ').replace('\n', ' ');
+        // Spreadsheets run a cell starting with one of these as a formula; a leading quote keeps it text
+        if (!text.isEmpty() && "=+-@\t".indexOf(text.charAt(0)) >= 0) text = "'" + text;
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private long writeJsonLines(Iterator<TransactionRepository.ExportRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // Leave the response stream open for the caller
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            while (rows.hasNext()) {
+                TransactionRepository.ExportRow row = rows.next();
+                json.writeStartObject();
+                json.writeNumberField("id", row.getId());
+                json.writeStringField("date", row.getDate() != null ? row.getDate().toString() : null);
+                json.writeStringField("type", TransactionType.toValue(row.getType()));
+                json.writeStringField("title", row.getTitle());
+                json.writeStringField("category", row.getCategory());
+                if (row.getAmount() != null) {
+                    json.writeNumberField("amount", BigDecimal.valueOf(row.getAmount()));
+                } else {
+                    json.writeNullField("amount");
+                }
+                json.writeBooleanField("reserved", Boolean.TRUE.equals(row.getReserved()));
+                json.writeStringField("description", row.getDescription());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String formatAmount(Double amount) {
+        return amount != null ? BigDecimal.valueOf(amount).toPlainString() : "";
+    }
+}
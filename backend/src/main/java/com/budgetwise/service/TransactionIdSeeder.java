@@ -0,0 +1,48 @@
+package com.budgetwise.service;
+
+import com.budgetwise.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the transactions row of id_sequences past the largest existing id.
+ * Rows created while ids came from IDENTITY would otherwise collide with the
+ * first ids the table generator hands out.
+ */
+@Component
+public class TransactionIdSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIdSeeder.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Taking the EntityManagerFactory makes sure the migrations have created id_sequences
+    public TransactionIdSeeder(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void seed() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM transactions", Long.class);
+        // One allocation of headroom whichever end of the block the optimizer counts from
+        long floor = (maxId != null ? maxId : 0) + Transaction.ID_ALLOCATION_SIZE + 1;
+
+        int updated = jdbcTemplate.update(
+                "UPDATE id_sequences SET next_val = ? WHERE sequence_name = 'transactions' AND next_val < ?",
+                floor, floor);
+        if (updated > 0) {
+            log.info("Advanced transaction id sequence to {}", floor);
+            return;
+        }
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM id_sequences WHERE sequence_name = 'transactions'", Integer.class);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("INSERT INTO id_sequences (sequence_name, next_val) VALUES ('transactions', ?)", floor);
+        }
+    }
+}
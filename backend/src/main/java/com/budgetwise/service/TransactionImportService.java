@@ -0,0 +1,194 @@
+package com.budgetwise.service;
+
+import com.budgetwise.dto.ImportProgress;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.TransactionType;
+import com.budgetwise.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Imports a bank statement row by row. Valid rows are collected into batches
+ * of {@link Transaction#ID_ALLOCATION_SIZE}; each batch is checked for
+ * duplicates against the user's stored transactions, inserted with JDBC
+ * batching and committed together with its monthly rollup deltas.
+ *
+ * Duplicates are judged against stored transactions only, by date, type,
+ * amount and title (ignoring case) and counting repeats: the n-th identical
+ * row of a file is a duplicate only if at least n such transactions are
+ * already stored. Importing a statement twice adds nothing the second time,
+ * while two identical purchases on one day both import.
+ */
+@Service
+public class TransactionImportService {
+
+    private static final int BATCH_SIZE = Transaction.ID_ALLOCATION_SIZE;
+
+    // Keeps the final report readable for a file that is wrong on every line
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final TransactionRepository repository;
+    private final MonthlyRollupService rollupService;
+    private final LedgerVersionService ledgerVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter importedCounter;
+    private final Counter rejectedCounter;
+
+    public TransactionImportService(TransactionRepository repository,
+                                    MonthlyRollupService rollupService,
+                                    LedgerVersionService ledgerVersions,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.rollupService = rollupService;
+        this.ledgerVersions = ledgerVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importedCounter = Counter.builder("budgetwise.import.rows")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("budgetwise.import.rows")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    private record DedupKey(LocalDate date, String type, long cents, String title) {
+
+        static DedupKey of(LocalDate date, String type, Double amount, String title) {
+            return new DedupKey(date, type,
+                    Math.round((amount != null ? amount : 0) * 100),
+                    title != null ? title.trim().toLowerCase(Locale.ROOT) : "");
+        }
+    }
+
+    // Running totals for one import
+    private static final class Tally {
+        long processed;
+        long imported;
+        long duplicates;
+        long failed;
+        final List<ImportProgress.RowError> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportProgress.RowError(line, message));
+            }
+        }
+
+        ImportProgress snapshot(String status, boolean withErrors) {
+            return new ImportProgress(status, processed, imported, duplicates, failed,
+                    withErrors ? List.copyOf(errors) : List.of());
+        }
+    }
+
+    /**
+     * Reads the whole statement, calling {@code progress} after every batch
+     * and once more with the final report, which is also returned.
+     */
+    public ImportProgress importStatement(String email, StatementReader reader,
+                                          Consumer<ImportProgress> progress) throws IOException {
+        Tally tally = new Tally();
+        Map<DedupKey, Integer> repeats = new HashMap<>();
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        List<Long> lines = new ArrayList<>(BATCH_SIZE);
+        List<Integer> occurrences = new ArrayList<>(BATCH_SIZE);
+
+        try {
+            StatementReader.Row row;
+            while ((row = reader.next()) != null) {
+                tally.processed++;
+
+                if (row.error() != null) {
+                    tally.failed++;
+                    tally.reject(row.line(), row.error());
+                    continue;
+                }
+
+                Transaction t = row.transaction();
+                t.setUserEmail(email);
+
+                batch.add(t);
+                lines.add(row.line());
+                occurrences.add(repeats.merge(DedupKey.of(t.getDate(), t.getType(), t.getAmount(), t.getTitle()),
+                        1, Integer::sum));
+                if (batch.size() == BATCH_SIZE) {
+                    flush(email, batch, lines, occurrences, tally);
+                    progress.accept(tally.snapshot("running", false));
+                }
+            }
+            flush(email, batch, lines, occurrences, tally);
+        } catch (IllegalArgumentException e) {
+            // The statement as a whole is unreadable; batches already committed stay imported
+            tally.reject(0, e.getMessage());
+            rejectedCounter.increment(tally.failed + tally.duplicates);
+            ImportProgress aborted = tally.snapshot("aborted", true);
+            progress.accept(aborted);
+            return aborted;
+        }
+
+        rejectedCounter.increment(tally.failed + tally.duplicates);
+        ImportProgress done = tally.snapshot("done", true);
+        progress.accept(done);
+        return done;
+    }
+
+    // occurrences.get(i): how many rows of the file so far, this one included, share batch.get(i)'s key
+    private void flush(String email, List<Transaction> batch, List<Long> lines, List<Integer> occurrences,
+                       Tally tally) {
+        if (batch.isEmpty()) return;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Taken first: the user-row lock also serialises concurrent imports' duplicate checks
+            long version = ledgerVersions.next(email);
+
+            LocalDate from = batch.get(0).getDate();
+            LocalDate to = from;
+            for (Transaction t : batch) {
+                if (t.getDate().isBefore(from)) from = t.getDate();
+                if (t.getDate().isAfter(to)) to = t.getDate();
+            }
+
+            // Includes rows earlier batches of this file committed, which their repeats here count past
+            Map<DedupKey, Integer> stored = new HashMap<>();
+            for (TransactionRepository.ImportKey k : repository.findImportKeys(email, from, to)) {
+                stored.merge(DedupKey.of(k.getDate(), TransactionType.toValue(k.getType()), k.getAmount(), k.getTitle()),
+                        1, Integer::sum);
+            }
+
+            List<Transaction> fresh = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Transaction t = batch.get(i);
+                DedupKey key = DedupKey.of(t.getDate(), t.getType(), t.getAmount(), t.getTitle());
+                if (occurrences.get(i) <= stored.getOrDefault(key, 0)) {
+                    tally.duplicates++;
+                    tally.reject(lines.get(i), "Already recorded");
+                } else {
+                    fresh.add(t);
+                }
+            }
+
+            for (Transaction t : fresh) t.setChangeVersion(version);
+            repository.saveAll(fresh);
+            Map<MonthlyRollupService.Key, long[]> deltas = new HashMap<>();
+            for (Transaction t : fresh) MonthlyRollupService.accumulate(deltas, t, 1);
+            rollupService.applyDeltas(deltas);
+            tally.imported += fresh.size();
+            importedCounter.increment(fresh.size());
+        });
+
+        batch.clear();
+        lines.clear();
+        occurrences.clear();
+    }
+}
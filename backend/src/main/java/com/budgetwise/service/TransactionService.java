@@ -1,29 +1,84 @@
 package com.budgetwise.service;
 
+import com.budgetwise.dto.TransactionBatch;
+import com.budgetwise.dto.TransactionBatchResult;
+import com.budgetwise.dto.TransactionCursor;
+import com.budgetwise.dto.TransactionFilter;
+import com.budgetwise.dto.TransactionPage;
+import com.budgetwise.dto.TransactionSummary;
 import com.budgetwise.model.Transaction;
+import com.budgetwise.model.TransactionTombstone;
+import com.budgetwise.model.TransactionType;
+import com.budgetwise.repository.CategoryDictionary;
 import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.TransactionTombstoneRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.budgetwise.repository.TransactionSpecifications.*;
 
 @Service
 public class TransactionService {
 
+    // Widest range a MySQL DATE column can hold; used when the caller gives no bounds
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    // MySQL (and H2) sort NULL below every value, so undated rows come last; TransactionSpecifications.after relies on it
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+
     private final TransactionRepository repository;
+    private final MonthlyRollupService rollupService;
+    private final LedgerVersionService ledgerVersions;
+    private final TransactionTombstoneRepository tombstones;
+    private final LedgerCache ledgerCache;
+    private final CategoryDictionary categories;
 
-    public TransactionService(TransactionRepository repository) {
+    public TransactionService(TransactionRepository repository, MonthlyRollupService rollupService,
+                              LedgerVersionService ledgerVersions, TransactionTombstoneRepository tombstones,
+                              LedgerCache ledgerCache, CategoryDictionary categories) {
         if (repository == null) throw new IllegalArgumentException("TransactionRepository cannot be null");
+        if (rollupService == null) throw new IllegalArgumentException("MonthlyRollupService cannot be null");
+        if (ledgerVersions == null) throw new IllegalArgumentException("LedgerVersionService cannot be null");
+        if (tombstones == null) throw new IllegalArgumentException("TransactionTombstoneRepository cannot be null");
+        if (ledgerCache == null) throw new IllegalArgumentException("LedgerCache cannot be null");
+        if (categories == null) throw new IllegalArgumentException("CategoryDictionary cannot be null");
         this.repository = repository;
+        this.rollupService = rollupService;
+        this.ledgerVersions = ledgerVersions;
+        this.tombstones = tombstones;
+        this.ledgerCache = ledgerCache;
+        this.categories = categories;
     }
 
     // -------------------
     // ADD
     // -------------------
+    @Transactional
     public Transaction add(Transaction transaction) {
         if (transaction == null) throw new IllegalArgumentException("Transaction cannot be null");
-        return repository.save(transaction);
+        long version = ledgerVersions.next(transaction.getUserEmail());
+        transaction.setChangeVersion(version);
+        transaction.setVersion(null); // a new row starts at the first version whatever the client sent
+        Transaction saved = repository.save(transaction);
+        rollupService.apply(saved, 1);
+        ledgerCache.recordChange(saved.getUserEmail(), version, List.of(), List.of(saved));
+        return saved;
     }
 
     // -------------------
@@ -32,70 +87,459 @@ public class TransactionService {
     public List<Transaction> getByUserEmail(String email) {
         if (email == null) throw new IllegalArgumentException("User email cannot be null");
 
-        // Convert reserved → expense if date arrived
-        convertMaturedReserved(email);
-
+        // Matured reserved rows are converted by ReservedMaturationJob, not on read
         return repository.findByUserEmail(email);
     }
 
+    // -------------------
+    // GET PAGE (KEYSET)
+    // -------------------
+    public TransactionPage getPage(String email, TransactionFilter filter, String cursor, int limit) {
+        if (email == null) throw new IllegalArgumentException("User email cannot be null");
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive");
+
+        TransactionFilter f = filter != null
+                ? filter
+                : new TransactionFilter(null, null, null, null, null, null);
+        TransactionCursor position = cursor != null && !cursor.isBlank()
+                ? TransactionCursor.decode(cursor)
+                : null;
+
+        // Binding an unknown name would add it to the dictionary, and it can't match anything anyway
+        if (f.category() != null && !f.category().isBlank() && categories.find(f.category()) == null) {
+            return new TransactionPage(List.of(), null);
+        }
+
+        Specification<Transaction> spec = Specification.allOf(
+                ownedBy(email),
+                dateFrom(f.from()),
+                dateTo(f.to()),
+                hasType(f.type()),
+                inCategory(f.category()),
+                amountAtLeast(f.minAmount()),
+                amountAtMost(f.maxAmount()),
+                position != null ? after(position.date(), position.id()) : null
+        );
+
+        // Fetch one extra row to learn whether another page exists without a COUNT
+        List<Transaction> rows = repository.findBy(spec,
+                q -> q.sortBy(NEWEST_FIRST).limit(limit + 1).all());
+
+        if (rows.size() <= limit) {
+            return new TransactionPage(rows, null);
+        }
+
+        List<Transaction> items = rows.subList(0, limit);
+        Transaction last = items.get(limit - 1);
+
+        String next = new TransactionCursor(last.getDate(), last.getId()).encode();
+
+        return new TransactionPage(new ArrayList<>(items), next);
+    }
+
+    // -------------------
+    // DASHBOARD SUMMARY
+    // -------------------
+    public TransactionSummary getSummary(String email, LocalDate from, LocalDate to, String granularity) {
+        if (email == null) throw new IllegalArgumentException("User email cannot be null");
+
+        LocalDate start = from != null ? from : MIN_DATE;
+        LocalDate end = to != null ? to : MAX_DATE;
+        boolean yearly = "year".equals(granularity);
+        LocalDate today = LocalDate.now();
+
+        LedgerColumns ledger = ledgerCache.get(email);
+        if (ledger != null) {
+            return summarize(ledger, from, to, start, end, yearly, today);
+        }
+
+        // Reserved income only counts as spent once its date arrives, so rows up to
+        // today ("settled") and after today ("pending") are aggregated separately.
+        // Everything is summed in cents and only turned into major units for the response.
+        LocalDate settledEnd = end.isAfter(today) ? today : end;
+        LocalDate pendingStart = start.isAfter(today) ? start : today.plusDays(1);
+
+        long totalIncome = 0, totalExpenses = 0, reservedSavings = 0;
+        Map<String, Long> categories = new TreeMap<>();
+
+        for (int pass = 0; pass < 2; pass++) {
+            boolean settled = pass == 0;
+            LocalDate rangeStart = settled ? start : pendingStart;
+            LocalDate rangeEnd = settled ? settledEnd : end;
+            if (rangeStart.isAfter(rangeEnd)) continue;
+
+            for (TransactionRepository.CategoryTotal row : repository.sumByCategory(email, rangeStart, rangeEnd)) {
+                long total = row.getTotalCents() != null ? row.getTotalCents() : 0;
+                boolean reserved = Boolean.TRUE.equals(row.getReserved());
+                String type = TransactionType.toValue(row.getType());
+
+                if ("income".equals(type) && !reserved) {
+                    totalIncome += total;
+                } else if (isReservedIncome(type, reserved) && !settled) {
+                    reservedSavings += total;
+                } else if ("expense".equals(type) || isReservedIncome(type, reserved)) {
+                    totalExpenses += total;
+                    String category = row.getCategory() != null ? row.getCategory() : "Uncategorized";
+                    categories.merge(category, total, Long::sum);
+                }
+            }
+        }
+
+        // period -> {income, expenses}
+        Map<String, long[]> periods = new TreeMap<>();
+
+        for (int pass = 0; pass < 2; pass++) {
+            boolean settled = pass == 0;
+            LocalDate rangeStart = settled ? start : pendingStart;
+            LocalDate rangeEnd = settled ? settledEnd : end;
+            if (rangeStart.isAfter(rangeEnd)) continue;
+
+            for (TransactionRepository.MonthTotal row : repository.sumByMonth(email, rangeStart, rangeEnd)) {
+                long total = row.getTotalCents() != null ? row.getTotalCents() : 0;
+                boolean reserved = Boolean.TRUE.equals(row.getReserved());
+                String type = TransactionType.toValue(row.getType());
+                String period = yearly
+                        ? String.format("%04d", row.getYear())
+                        : String.format("%04d-%02d", row.getYear(), row.getMonth());
+                long[] bucket = periods.computeIfAbsent(period, k -> new long[2]);
+
+                if ("income".equals(type) && (!reserved || settled)) bucket[0] += total;
+                if ("expense".equals(type) || (isReservedIncome(type, reserved) && settled)) bucket[1] += total;
+            }
+        }
+
+        List<TransactionSummary.CategoryTotal> categoryTotals = new ArrayList<>();
+        categories.forEach((category, total) ->
+                categoryTotals.add(new TransactionSummary.CategoryTotal(category, total / 100.0)));
+
+        List<TransactionSummary.PeriodTotal> periodTotals = new ArrayList<>();
+        periods.forEach((period, bucket) ->
+                periodTotals.add(new TransactionSummary.PeriodTotal(
+                        period, bucket[0] / 100.0, bucket[1] / 100.0, Math.max(bucket[0] - bucket[1], 0) / 100.0)));
+
+        return new TransactionSummary(
+                from, to, yearly ? "year" : "month",
+                totalIncome / 100.0, totalExpenses / 100.0, reservedSavings / 100.0,
+                Math.max(totalIncome - totalExpenses, 0) / 100.0,
+                categoryTotals, periodTotals);
+    }
+
+    // Same figures as the queries above, read from the cached columns, also in cents
+    private static TransactionSummary summarize(LedgerColumns ledger, LocalDate from, LocalDate to,
+                                                LocalDate start, LocalDate end, boolean yearly, LocalDate today) {
+        int s = (int) start.toEpochDay();
+        int e = (int) end.toEpochDay();
+        int settledEnd = Math.min(e, (int) today.toEpochDay());
+        int pendingStart = Math.max(s, (int) today.toEpochDay() + 1);
+
+        long income = ledger.sum(LedgerColumns.INCOME, s, e);
+        long expenses = ledger.sum(LedgerColumns.EXPENSE, s, e) + reservedSpent(ledger, s, settledEnd);
+        long reservedSavings = ledger.sum(LedgerColumns.RESERVED_INCOME, pendingStart, e)
+                + ledger.sum(LedgerColumns.RESERVED, pendingStart, e);
+
+        // Category names are kept sorted, so this matches the TreeMap order above
+        List<TransactionSummary.CategoryTotal> categoryTotals = new ArrayList<>();
+        for (int c = 0; c < ledger.categoryCount(); c++) {
+            int rows = ledger.expenseCount(c, s, e) + ledger.reservedCount(c, s, settledEnd);
+            if (rows == 0) continue;
+            long total = ledger.expenseSum(c, s, e) + ledger.reservedSum(c, s, settledEnd);
+            categoryTotals.add(new TransactionSummary.CategoryTotal(ledger.categoryName(c), total / 100.0));
+        }
+
+        // Walks only the periods that have rows, two binary searches per period
+        List<TransactionSummary.PeriodTotal> periodTotals = new ArrayList<>();
+        int endIndex = ledger.indexAfter(e);
+        for (int i = ledger.indexFrom(s); i < endIndex; ) {
+            LocalDate day = LocalDate.ofEpochDay(ledger.dayAt(i));
+            LocalDate first = yearly ? day.withDayOfYear(1) : day.withDayOfMonth(1);
+            int next = (int) (yearly ? first.plusYears(1) : first.plusMonths(1)).toEpochDay();
+            int ps = Math.max(s, (int) first.toEpochDay());
+            int pe = Math.min(e, next - 1);
+            int pSettledEnd = Math.min(pe, settledEnd);
+
+            long periodIncome = ledger.sum(LedgerColumns.INCOME, ps, pe)
+                    + ledger.sum(LedgerColumns.RESERVED_INCOME, ps, pSettledEnd);
+            long periodExpenses = ledger.sum(LedgerColumns.EXPENSE, ps, pe)
+                    + reservedSpent(ledger, ps, pSettledEnd);
+            String period = yearly
+                    ? String.format("%04d", first.getYear())
+                    : String.format("%04d-%02d", first.getYear(), first.getMonthValue());
+            periodTotals.add(new TransactionSummary.PeriodTotal(
+                    period, periodIncome / 100.0, periodExpenses / 100.0,
+                    Math.max(periodIncome - periodExpenses, 0) / 100.0));
+
+            i = ledger.indexFrom(next);
+        }
+
+        return new TransactionSummary(
+                from, to, yearly ? "year" : "month",
+                income / 100.0, expenses / 100.0, reservedSavings / 100.0,
+                Math.max(income - expenses, 0) / 100.0,
+                categoryTotals, periodTotals);
+    }
+
+    // Reserved income of either kind counts as spent once its date has arrived
+    private static long reservedSpent(LedgerColumns ledger, int fromDay, int toDay) {
+        return ledger.sum(LedgerColumns.RESERVED_INCOME, fromDay, toDay)
+                + ledger.sum(LedgerColumns.RESERVED, fromDay, toDay);
+    }
+
+    // Reserved savings are stored either as income with the reserved flag or,
+    // after an edit, with the "reserved" type itself
+    private static boolean isReservedIncome(String type, boolean reserved) {
+        return reserved && ("income".equals(type) || "reserved".equals(type));
+    }
+
     // -------------------
     // GET BY ID
     // -------------------
-    public Optional<Transaction> getById(Long id) {
+    public Optional<Transaction> getById(Long id, String email) {
         if (id == null) throw new IllegalArgumentException("Transaction ID cannot be null");
-        return repository.findById(id);
+        if (email == null) throw new IllegalArgumentException("User email cannot be null");
+        return repository.findByIdAndUserEmail(id, email);
     }
 
     // -------------------
     // DELETE
     // -------------------
-    public boolean delete(Long id) {
+
+    /**
+     * Deletes the user's row if it is still at {@code expectedVersion}, or at
+     * whatever version it has when that is null. Returns false when the user
+     * has no such row and throws {@link OptimisticLockingFailureException}
+     * when it was changed since the caller read it.
+     *
+     * This is not a single round trip: the old row is read first because
+     * the rollup delta and the ledger cache need its values, and neither
+     * MySQL nor H2 can return them from the DELETE. The ledger version bump
+     * and the tombstone add their own statements.
+     */
+    @Transactional
+    public boolean delete(Long id, String email, Long expectedVersion) {
         if (id == null) throw new IllegalArgumentException("Transaction ID cannot be null");
-        if (repository.existsById(id)) {
-            repository.deleteById(id);
-            return true;
+        if (email == null) throw new IllegalArgumentException("User email cannot be null");
+
+        Optional<Transaction> found = repository.findByIdAndUserEmail(id, email);
+        if (found.isEmpty()) return false;
+        Transaction existing = found.get();
+
+        long expected = expectedVersion != null ? expectedVersion : existing.getVersion();
+        if (expected != existing.getVersion() || repository.deleteOwned(id, email, expected) == 0) {
+            throw conflict(id);
         }
-        return false;
+
+        rollupService.apply(existing, -1);
+        long version = recordDeletion(id, email);
+        ledgerCache.recordChange(email, version, List.of(id), List.of());
+        return true;
     }
 
     // -------------------
     // UPDATE
     // -------------------
+
+    /**
+     * Overwrites the editable fields of the owner's row with a conditional
+     * UPDATE. The version in {@code updated} must match the row's; a client
+     * that sends none overwrites whatever is there. Returns empty when the
+     * owner has no such row and throws {@link OptimisticLockingFailureException}
+     * on a version mismatch.
+     *
+     * As with {@link #delete}, the old row is read before the write for the
+     * rollup delta, so this costs more statements than the find-then-save it
+     * replaced; what the conditional UPDATE buys is owner scoping and no
+     * lost concurrent edits.
+     */
+    @Transactional
     public Optional<Transaction> update(Transaction updated) {
         if (updated == null) throw new IllegalArgumentException("Updated transaction cannot be null");
         Long id = updated.getId();
         if (id == null) throw new IllegalArgumentException("Transaction ID cannot be null");
+        String email = updated.getUserEmail();
+        if (email == null) throw new IllegalArgumentException("User email cannot be null");
+
+        Optional<Transaction> found = repository.findByIdAndUserEmail(id, email);
+        if (found.isEmpty()) return Optional.empty();
+        Transaction existing = found.get();
+
+        long expected = updated.getVersion() != null ? updated.getVersion() : existing.getVersion();
+        if (expected != existing.getVersion()) throw conflict(id);
+
+        // Keep type as "reserved" if reserved
+        if (updated.isReserved()) updated.setType("reserved");
 
-        return repository.findById(id).map(existing -> {
-            existing.setDate(updated.getDate());
-            existing.setTitle(updated.getTitle());
-            existing.setCategory(updated.getCategory());
-            existing.setAmount(updated.getAmount());
-            existing.setType(updated.getType());
-            existing.setDescription(updated.getDescription());
-            existing.setUserEmail(updated.getUserEmail());
-            existing.setReserved(updated.isReserved());
+        long version = ledgerVersions.next(email);
+        int changed = repository.updateOwned(id, email, expected,
+                updated.getDate(), TransactionType.fromValue(updated.getType()), updated.getTitle(),
+                updated.getCategory(), updated.getAmountCents(), updated.getDescription(),
+                updated.isReserved(), version);
+        // Another request wrote the row between the read and the update
+        if (changed == 0) throw conflict(id);
 
-            // Keep type as "reserved" if reserved
-            if (updated.isReserved()) existing.setType("reserved");
+        // The update cleared the persistence context, so existing is a detached copy of the old row
+        rollupService.apply(existing, -1);
+        copyEditableFields(updated, existing);
+        existing.setChangeVersion(version);
+        existing.setVersion(expected + 1);
+        rollupService.apply(existing, 1);
+        ledgerCache.recordChange(email, version, List.of(id), List.of(existing));
+        return Optional.of(existing);
+    }
+
+    private static OptimisticLockingFailureException conflict(Long id) {
+        return new OptimisticLockingFailureException("Transaction " + id + " was changed by another request");
+    }
 
-            return repository.save(existing);
-        });
+    private long recordDeletion(Long id, String email) {
+        long version = ledgerVersions.next(email);
+        tombstones.save(new TransactionTombstone(id, email, version, LocalDateTime.now()));
+        return version;
+    }
+
+    private static void copyEditableFields(Transaction from, Transaction to) {
+        to.setDate(from.getDate());
+        to.setTitle(from.getTitle());
+        to.setCategory(from.getCategory());
+        to.setAmount(from.getAmount());
+        to.setType(from.getType());
+        to.setDescription(from.getDescription());
+        to.setReserved(from.isReserved());
+
+        // Keep type as "reserved" if reserved
+        if (from.isReserved()) to.setType("reserved");
     }
 
     // -------------------
-    // CONVERT RESERVED → EXPENSE
+    // BATCH
     // -------------------
-    private void convertMaturedReserved(String email) {
-        List<Transaction> reservedList = repository.findByUserEmailAndType(email, "reserved");
-        LocalDate today = LocalDate.now();
 
-        for (Transaction tx : reservedList) {
-            if (tx.getDate() != null && !tx.getDate().isAfter(today)) {
-                tx.setType("expense");
-                tx.setReserved(false); // no longer reserved
-                repository.save(tx);
+    /**
+     * Applies a list of create/update/delete operations for one user in a
+     * single transaction. Targets are loaded with one owner-scoped query,
+     * deletes run as one statement, inserts and updates go out as JDBC
+     * batches and rollups get one delta per month/type/category.
+     *
+     * Invalid operations, or ids the user doesn't own, are reported in
+     * their result item and don't stop the rest of the batch.
+     */
+    @Transactional
+    public List<TransactionBatchResult.Item> applyBatch(String email, List<TransactionBatch.Operation> operations) {
+        if (email == null) throw new IllegalArgumentException("User email cannot be null");
+        if (operations == null) throw new IllegalArgumentException("Operations cannot be null");
+
+        TransactionBatchResult.Item[] results = new TransactionBatchResult.Item[operations.size()];
+        String[] ops = new String[operations.size()];
+        Set<Long> targetIds = new HashSet<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            TransactionBatch.Operation operation = operations.get(i);
+            String op = operation != null && operation.op() != null
+                    ? operation.op().trim().toLowerCase(Locale.ROOT)
+                    : "";
+            ops[i] = op;
+            String error = validate(op, operation);
+            if (error == null && !op.equals("create") && !targetIds.add(operation.id())) {
+                error = "id appears more than once in this batch";
+            }
+            if (error != null) {
+                results[i] = new TransactionBatchResult.Item(i, op, operation != null ? operation.id() : null, 400, error);
             }
         }
+
+        boolean anyValid = false;
+        for (TransactionBatchResult.Item item : results) anyValid |= item == null;
+        if (!anyValid) return List.of(results);
+
+        // One version for the whole batch, taken before any row is touched
+        long version = ledgerVersions.next(email);
+
+        Map<Long, Transaction> owned = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            for (Transaction t : repository.findByUserEmailAndIdIn(email, targetIds)) owned.put(t.getId(), t);
+        }
+
+        Map<MonthlyRollupService.Key, long[]> deltas = new HashMap<>();
+        List<Transaction> created = new ArrayList<>();
+        List<Integer> createdAt = new ArrayList<>();
+        List<Transaction> updated = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        List<TransactionTombstone> deletions = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            if (results[i] != null) continue;
+            TransactionBatch.Operation operation = operations.get(i);
+
+            if (ops[i].equals("create")) {
+                Transaction t = operation.transaction();
+                t.setId(null); // never let a create overwrite an existing row
+                t.setVersion(null);
+                t.setUserEmail(email);
+                t.setChangeVersion(version);
+                if ("reserved".equalsIgnoreCase(t.getType())) t.setReserved(true);
+                created.add(t);
+                createdAt.add(i);
+                continue;
+            }
+
+            Transaction existing = owned.get(operation.id());
+            if (existing == null) {
+                results[i] = new TransactionBatchResult.Item(i, ops[i], operation.id(), 404, "Transaction not found");
+                continue;
+            }
+
+            Long expected = operation.version() != null ? operation.version()
+                    : operation.transaction() != null ? operation.transaction().getVersion() : null;
+            if (expected != null && !expected.equals(existing.getVersion())) {
+                results[i] = new TransactionBatchResult.Item(i, ops[i], existing.getId(), 409,
+                        "Transaction was changed by another request");
+                continue;
+            }
+
+            MonthlyRollupService.accumulate(deltas, existing, -1);
+            if (ops[i].equals("update")) {
+                // The entity is managed, so the change is flushed with the other updates at commit,
+                // as a versioned UPDATE that fails the batch if the row changed since it was loaded
+                copyEditableFields(operation.transaction(), existing);
+                existing.setChangeVersion(version);
+                MonthlyRollupService.accumulate(deltas, existing, 1);
+                updated.add(existing);
+                results[i] = new TransactionBatchResult.Item(i, ops[i], existing.getId(), 200, null);
+            } else {
+                deleted.add(existing.getId());
+                deletions.add(new TransactionTombstone(existing.getId(), email, version, LocalDateTime.now()));
+                results[i] = new TransactionBatchResult.Item(i, ops[i], existing.getId(), 204, null);
+            }
+        }
+
+        if (!created.isEmpty()) {
+            repository.saveAll(created);
+            for (int j = 0; j < created.size(); j++) {
+                Transaction t = created.get(j);
+                MonthlyRollupService.accumulate(deltas, t, 1);
+                results[createdAt.get(j)] = new TransactionBatchResult.Item(createdAt.get(j), "create", t.getId(), 201, null);
+            }
+        }
+        if (!deleted.isEmpty()) {
+            repository.deleteOwned(email, deleted);
+            tombstones.saveAll(deletions);
+        }
+        rollupService.applyDeltas(deltas);
+
+        List<Long> replaced = new ArrayList<>(deleted);
+        for (Transaction t : updated) replaced.add(t.getId());
+        updated.addAll(created);
+        ledgerCache.recordChange(email, version, replaced, updated);
+
+        return List.of(results);
+    }
+
+    private static String validate(String op, TransactionBatch.Operation operation) {
+        return switch (op) {
+            case "create" -> operation.transaction() == null ? "transaction is required" : null;
+            case "update" -> operation.id() == null ? "id is required"
+                    : operation.transaction() == null ? "transaction is required" : null;
+            case "delete" -> operation.id() == null ? "id is required" : null;
+            default -> "op must be create, update or delete";
+        };
     }
 }
@@ -0,0 +1,86 @@
+package com.budgetwise.service;
+
+import com.budgetwise.dto.ChangeCursor;
+import com.budgetwise.dto.TransactionChanges;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.TransactionTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delta sync for clients that keep a local copy of the ledger. Every write
+ * stamps its rows with the owner's new ledger version and deletes leave a
+ * tombstone at that version, so "changed after version v" is a single
+ * indexed range per table.
+ *
+ * Tombstones are kept for {@code budgetwise.sync.tombstone-retention};
+ * cursors older than that must resync from scratch.
+ */
+@Service
+public class TransactionSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionSyncService.class);
+
+    private final TransactionRepository repository;
+    private final TransactionTombstoneRepository tombstones;
+    private final LedgerVersionService ledgerVersions;
+    private final Duration retention;
+
+    public TransactionSyncService(TransactionRepository repository,
+                                  TransactionTombstoneRepository tombstones,
+                                  LedgerVersionService ledgerVersions,
+                                  @Value("${budgetwise.sync.tombstone-retention:30d}") Duration retention) {
+        this.repository = repository;
+        this.tombstones = tombstones;
+        this.ledgerVersions = ledgerVersions;
+        this.retention = retention;
+    }
+
+    /** True when deletions after this cursor may already have been purged. */
+    public boolean isExpired(ChangeCursor since) {
+        return since.issuedAt().isBefore(Instant.now().minus(retention));
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionChanges changesSince(String email, ChangeCursor since) {
+        if (email == null) throw new IllegalArgumentException("User email cannot be null");
+
+        // Everything up to the current version has committed together with the version
+        // itself, so capping both reads there gives a consistent cut under any isolation
+        // level; later writes are picked up on the next call
+        long version = ledgerVersions.current(email);
+
+        List<Transaction> upserts;
+        List<Long> deleted;
+        if (since == null) {
+            upserts = repository.findByUserEmail(email);
+            deleted = List.of();
+        } else {
+            upserts = repository.findByUserEmailAndChangeVersionBetween(email, since.version() + 1, version);
+            deleted = tombstones.findDeletedBetween(email, since.version(), version);
+        }
+
+        return new TransactionChanges(new ChangeCursor(version, Instant.now()).encode(), upserts, deleted);
+    }
+
+    // -------------------
+    // TOMBSTONE PURGE
+    // -------------------
+    @Scheduled(cron = "${budgetwise.sync.purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        int purged = tombstones.purgeOlderThan(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} transaction tombstones", purged);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies the old transaction columns into the ones V3 added: the owner's
+ * user id, the type code (TransactionType ordinal), the category id and the
+ * amount in cents.
+ *
+ * Runs in id ranges, each committed on its own, so a large table is never
+ * locked by one long statement. Ranges are idempotent: a migration that
+ * fails half way can simply be run again.
+ *
+ * V5 drops the old columns, so this refuses to finish while any row could
+ * not be carried over: one whose owner has no account, or whose type is
+ * missing or unknown. Give those rows an owner and a type or delete them,
+ * then repair and migrate again.
+ */
+public class V4__Backfill_normalized_transactions extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V4__Backfill_normalized_transactions.class);
+
+    private static final int CHUNK = 5000;
+
+    // Correlated lookups rather than a multi-table update, so the H2 migration test runs it too
+    private static final String BACKFILL = """
+            update transactions
+            set user_id = (select u.id from users u where u.email = transactions.user_email),
+                category_id = (select c.id from categories c where c.name = transactions.category),
+                amount_cents = coalesce(round(amount * 100), 0),
+                type_code = case lower(trim(type))
+                    when 'income' then 0
+                    when 'expense' then 1
+                    when 'reserved' then 2
+                end
+            where id >= ? and id < ?
+            """;
+
+    private static final String UNRESOLVED = """
+            select id from transactions
+            where user_id is null
+               or type_code is null
+               or (category is not null and category_id is null)
+            order by id
+            """;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        long min;
+        long max;
+        try (Statement query = connection.createStatement();
+             ResultSet rs = query.executeQuery("select coalesce(min(id), 0), coalesce(max(id), -1) from transactions")) {
+            rs.next();
+            min = rs.getLong(1);
+            max = rs.getLong(2);
+        }
+
+        long rows = 0;
+        try (PreparedStatement update = connection.prepareStatement(BACKFILL)) {
+            for (long from = min; from <= max; from += CHUNK) {
+                update.setLong(1, from);
+                update.setLong(2, from + CHUNK);
+                rows += update.executeUpdate();
+                if (!connection.getAutoCommit()) connection.commit();
+            }
+        }
+        log.info("Backfilled normalized columns for {} transactions", rows);
+
+        List<Long> unresolved = new ArrayList<>();
+        try (Statement query = connection.createStatement();
+             ResultSet rs = query.executeQuery(UNRESOLVED)) {
+            while (rs.next()) unresolved.add(rs.getLong(1));
+        }
+        if (!unresolved.isEmpty()) {
+            throw new IllegalStateException("Could not carry over " + unresolved.size()
+                    + " transaction(s) without an owning account or a known type, ids "
+                    + unresolved.subList(0, Math.min(20, unresolved.size()))
+                    + (unresolved.size() > 20 ? "..." : "")
+                    + "; fix or delete them before the old columns are dropped");
+        }
+    }
+}
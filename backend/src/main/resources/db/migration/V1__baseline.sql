@@ -0,0 +1,39 @@
+-- Schema as Hibernate's ddl-auto=update created it before migrations were
+-- introduced. Existing databases are baselined at this version and skip it,
+-- so everything added since belongs in V2 onwards.
+
+create table users (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    verified bit not null,
+    logged_in bit not null,
+    otp varchar(255),
+    otp_generated_time datetime(6),
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+) engine=InnoDB;
+
+create table transactions (
+    id bigint not null auto_increment,
+    date date,
+    type varchar(255),
+    title varchar(255),
+    category varchar(255),
+    amount float(53),
+    description varchar(500),
+    user_email varchar(255),
+    reserved bit not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table otp_verification (
+    id bigint not null auto_increment,
+    email varchar(255),
+    otp varchar(255),
+    used bit not null,
+    expiry_time datetime(6),
+    primary key (id)
+) engine=InnoDB;
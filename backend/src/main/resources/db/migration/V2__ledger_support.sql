@@ -0,0 +1,60 @@
+-- Tables, columns and indexes the services rely on besides the transaction
+-- normalization in V3-V5: ledger and change versions, pooled transaction
+-- ids, monthly rollups, delete tombstones, the mail outbox and the OTP
+-- lookups.
+
+alter table users add column ledger_version bigint not null default 0;
+alter table transactions add column change_version bigint not null default 0;
+
+-- Transaction ids come from a pooled table generator; TransactionIdSeeder
+-- starts it past the ids the auto_increment column already handed out
+create table id_sequences (
+    sequence_name varchar(255) not null,
+    next_val bigint,
+    primary key (sequence_name)
+) engine=InnoDB;
+
+create table monthly_rollup (
+    id bigint not null auto_increment,
+    user_email varchar(255) not null,
+    period varchar(7) not null,
+    type varchar(255) not null,
+    category varchar(255) not null,
+    total_cents bigint not null,
+    tx_count bigint not null,
+    primary key (id),
+    constraint uk_monthly_rollup_key unique (user_email, period, type, category)
+) engine=InnoDB;
+
+create table transaction_tombstones (
+    transaction_id bigint not null,
+    user_email varchar(255) not null,
+    change_version bigint not null,
+    deleted_at datetime(6) not null,
+    primary key (transaction_id)
+) engine=InnoDB;
+
+create index idx_tombstones_user_change on transaction_tombstones (user_email, change_version);
+create index idx_tombstones_deleted_at on transaction_tombstones (deleted_at);
+
+create table email_outbox (
+    id bigint not null auto_increment,
+    recipient varchar(255) not null,
+    subject varchar(255),
+    body varchar(4000) not null,
+    status enum ('PENDING','SENDING','SENT','FAILED') not null,
+    attempts integer not null,
+    created_at datetime(6),
+    next_attempt_at datetime(6),
+    claim_token varchar(36),
+    claimed_at datetime(6),
+    sent_at datetime(6),
+    last_error varchar(500),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_email_outbox_status_next on email_outbox (status, next_attempt_at);
+create index idx_email_outbox_claim on email_outbox (claim_token);
+
+create index idx_otp_email_used on otp_verification (email, used);
+create index idx_otp_expiry_time on otp_verification (expiry_time);
@@ -0,0 +1,20 @@
+-- Adds the normalized transaction columns next to the old ones. V4 fills
+-- them in and V5 adds the indexes and drops the old columns.
+
+create table categories (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_categories_name unique (name)
+) engine=InnoDB;
+
+-- Names differing only in case share a row, as they already did in reports
+insert ignore into categories (name)
+select distinct category from transactions where category is not null;
+
+alter table transactions add column (
+    user_id bigint,
+    type_code tinyint,
+    category_id bigint,
+    amount_cents bigint not null default 0
+);
@@ -0,0 +1,14 @@
+-- Indexes the owner's rows by user_id, adds the foreign keys and drops the
+-- columns V4 copied from. V4 fails instead of handing over rows it could
+-- not carry over, so nothing is dropped that only the old columns still hold.
+
+create index idx_transactions_user_date_id on transactions (user_id, date, id);
+create index idx_transactions_user_change on transactions (user_id, change_version);
+
+alter table transactions add constraint fk_transactions_user foreign key (user_id) references users (id);
+alter table transactions add constraint fk_transactions_category foreign key (category_id) references categories (id);
+
+alter table transactions drop column user_email;
+alter table transactions drop column type;
+alter table transactions drop column category;
+alter table transactions drop column amount;
@@ -0,0 +1,2 @@
+-- Row version for optimistic locking of single-row updates and deletes
+alter table transactions add column version bigint not null default 0;
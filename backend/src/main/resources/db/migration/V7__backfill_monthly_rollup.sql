@@ -0,0 +1,25 @@
+-- Rebuilds monthly_rollup from the ledger, as --rollup-rebuild does, so
+-- ledgers from before the rollups were introduced are totalled without a
+-- manual step. Same keys as MonthlyRollupService: "YYYY-MM" periods,
+-- reserved income under its own type, no category as ''.
+
+delete from monthly_rollup;
+
+insert into monthly_rollup (user_email, period, type, category, total_cents, tx_count)
+select email, period, type, category, sum(amount_cents), count(*)
+from (
+    select u.email as email,
+           concat(year(t.date), '-', lpad(month(t.date), 2, '0')) as period,
+           case
+               when t.type_code = 2 or (t.type_code = 0 and t.reserved) then 'reserved'
+               when t.type_code = 0 then 'income'
+               else 'expense'
+           end as type,
+           coalesce(c.name, '') as category,
+           t.amount_cents as amount_cents
+    from transactions t
+    join users u on u.id = t.user_id
+    left join categories c on c.id = t.category_id
+    where t.date is not null and t.type_code is not null
+) ledger
+group by email, period, type, category;
@@ -0,0 +1,3 @@
+-- Serves ReservedMaturationJob: the due reserved rows are found by type and
+-- date, and each chunk narrows them by id, without scanning the whole table
+create index idx_transactions_type_date_id on transactions (type_code, date, id);
@@ -0,0 +1,31 @@
+package com.budgetwise;
+
+import com.budgetwise.model.User;
+import com.budgetwise.repository.UserRepository;
+
+/**
+ * Verified accounts for tests. Each call returns the existing account when
+ * the email is already taken, so it can run before every test.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    /** An account that is only used through JWTs, never by logging in. */
+    public static User create(UserRepository users, String username, String email) {
+        return create(users, username, email, "{noop}unused");
+    }
+
+    public static User create(UserRepository users, String username, String email, String encodedPassword) {
+        User existing = users.findByEmail(email);
+        if (existing != null) return existing;
+
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword(encodedPassword);
+        user.setVerified(true);
+        return users.save(user);
+    }
+}
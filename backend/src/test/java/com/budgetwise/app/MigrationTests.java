@@ -0,0 +1,127 @@
+package com.budgetwise.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.service.TransactionService;
+
+/**
+ * The migrations build the schema the entities expect from an empty
+ * database, and carry a ledger created before them over to the normalized
+ * transaction columns and the monthly rollups.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+class MigrationTests {
+
+    private static final String EMAIL = "migrated@budgetwise.test";
+
+    @Autowired private Flyway flyway;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionService transactionService;
+
+    @Test
+    void emptyDatabaseIsMigratedToTheMappedSchema() {
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("8");
+
+        TestUsers.create(userRepository, "migrated", EMAIL);
+
+        Transaction saved = transactionService.add(new Transaction(LocalDate.of(2024, 3, 1), "expense",
+                "Groceries", "Food", 42.5, null, EMAIL, false));
+        Transaction stored = transactionService.getById(saved.getId(), EMAIL).orElseThrow();
+        assertThat(stored.getCategory()).isEqualTo("Food");
+        assertThat(stored.getAmount()).isEqualTo(42.5);
+        assertThat(stored.getUserEmail()).isEqualTo(EMAIL);
+    }
+
+    @Test
+    void legacyLedgerIsCarriedOverToTheNormalizedColumns() {
+        JdbcTemplate jdbc = legacyDatabase("legacy");
+        jdbc.update("insert into users (id, username, email, password, verified, logged_in) "
+                + "values (7, 'old', 'old@budgetwise.test', 'x', true, false)");
+        jdbc.update("insert into transactions (id, date, type, title, category, amount, user_email, reserved) "
+                + "values (1, '2023-01-05', 'Expense', 'Rent', 'Home', 899.99, 'old@budgetwise.test', false)");
+        jdbc.update("insert into transactions (id, date, type, title, category, amount, user_email, reserved) "
+                + "values (2, '2023-01-06', 'income', 'Salary', null, 2500, 'old@budgetwise.test', false)");
+
+        migrate(jdbc);
+
+        Map<String, Object> rent = jdbc.queryForMap(
+                "select user_id, type_code, category_id, amount_cents from transactions where id = 1");
+        assertThat(((Number) rent.get("user_id")).longValue()).isEqualTo(7L);
+        assertThat(((Number) rent.get("type_code")).intValue()).isEqualTo(1);
+        assertThat(((Number) rent.get("amount_cents")).longValue()).isEqualTo(89999L);
+        assertThat(jdbc.queryForObject("select name from categories where id = ?", String.class,
+                rent.get("category_id"))).isEqualTo("Home");
+
+        Map<String, Object> salary = jdbc.queryForMap(
+                "select type_code, category_id, amount_cents from transactions where id = 2");
+        assertThat(((Number) salary.get("type_code")).intValue()).isZero();
+        assertThat(salary.get("category_id")).isNull();
+        assertThat(((Number) salary.get("amount_cents")).longValue()).isEqualTo(250000L);
+
+        // Tables and columns from V2 exist although V1 never ran
+        assertThat(jdbc.queryForObject("select ledger_version from users where id = 7", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from email_outbox", Long.class)).isZero();
+
+        // Ledgers from before the rollups are totalled without a manual rebuild
+        assertThat(jdbc.queryForList(
+                "select concat(period, ' ', type, ' ', category, ' ', total_cents, ' ', tx_count) from monthly_rollup "
+                        + "where user_email = 'old@budgetwise.test' order by type", String.class))
+                .containsExactly("2023-01 expense Home 89999 1", "2023-01 income  250000 1");
+    }
+
+    @Test
+    void rowsThatCannotBeCarriedOverStopTheMigration() {
+        JdbcTemplate jdbc = legacyDatabase("orphans");
+        jdbc.update("insert into transactions (id, date, type, title, category, amount, user_email, reserved) "
+                + "values (1, '2023-01-05', 'expense', 'Rent', 'Home', 900, 'gone@budgetwise.test', false)");
+
+        Flyway flyway = flyway((DriverManagerDataSource) jdbc.getDataSource()).load();
+        assertThatThrownBy(flyway::migrate).hasStackTraceContaining("Could not carry over 1 transaction(s)");
+
+        // The old columns are still there to fix the row from
+        assertThat(jdbc.queryForObject("select user_email from transactions where id = 1", String.class))
+                .isEqualTo("gone@budgetwise.test");
+    }
+
+    // A database holding the schema from before migrations, as production ones do
+    private static JdbcTemplate legacyDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/legacy-schema.sql")).execute(dataSource);
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static void migrate(JdbcTemplate jdbc) {
+        Flyway flyway = flyway((DriverManagerDataSource) jdbc.getDataSource()).load();
+        flyway.migrate();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("8");
+    }
+
+    private static FluentConfiguration flyway(DriverManagerDataSource dataSource) {
+        // Same baseline settings as application.properties
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration")
+                .baselineOnMigrate(true).baselineVersion("1");
+    }
+}
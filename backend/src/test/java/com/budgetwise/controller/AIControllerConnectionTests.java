@@ -0,0 +1,108 @@
+package com.budgetwise.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.JwtUtil;
+import com.budgetwise.service.OpenRouterService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Many slow advisor calls at once against a two-connection pool: every
+ * request must reach the provider while no connection is checked out.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AIControllerConnectionTests {
+
+    private static final String EMAIL = "advisor@budgetwise.test";
+    private static final int CONCURRENT_CALLS = 8;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private DataSource dataSource;
+
+    @MockitoBean private OpenRouterService openRouterService;
+
+    private final ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CALLS);
+
+    @BeforeEach
+    void createUser() {
+        TestUsers.create(userRepository, "advisor", EMAIL);
+    }
+
+    @AfterEach
+    void stopClients() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void slowAiCallsHoldNoConnections() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(openRouterService.askOpenRouter(anyString())).thenAnswer(invocation -> {
+            inFlight.incrementAndGet();
+            release.await(10, TimeUnit.SECONDS);
+            return "Keep saving.";
+        });
+
+        String token = jwtUtil.generateToken(EMAIL);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            String body = "{\"question\":\"question " + i + "\"}";
+            statuses.add(clients.submit(() -> mockMvc.perform(post("/api/ai/ask")
+                            .header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn().getResponse().getStatus()));
+        }
+
+        try {
+            // With a connection held per call, at most two requests could get this far
+            for (int i = 0; i < 250 && inFlight.get() < CONCURRENT_CALLS; i++) {
+                Thread.sleep(20);
+            }
+            assertThat(inFlight.get()).isEqualTo(CONCURRENT_CALLS);
+            assertThat(dataSource.unwrap(HikariDataSource.class)
+                    .getHikariPoolMXBean().getActiveConnections()).isZero();
+        } finally {
+            release.countDown();
+        }
+
+        for (Future<Integer> status : statuses) {
+            assertThat(status.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+        }
+    }
+}
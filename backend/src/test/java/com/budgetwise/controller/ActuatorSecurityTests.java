@@ -0,0 +1,51 @@
+package com.budgetwise.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.JwtUtil;
+
+/**
+ * The health probe answers anyone; metrics only answer operator accounts,
+ * not every user who signed up.
+ */
+@SpringBootTest(properties = {
+        "management.health.mail.enabled=false", // no SMTP server in tests
+        "budgetwise.actuator.operators=ops@budgetwise.test"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ActuatorSecurityTests {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void onlyHealthIsPublic() throws Exception {
+        TestUsers.create(userRepository, "ops", "ops@budgetwise.test");
+        TestUsers.create(userRepository, "member", "member@budgetwise.test");
+
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics/jvm.memory.used")).andExpect(status().isForbidden());
+
+        // A signed-in ordinary user is still refused
+        mockMvc.perform(get("/actuator/metrics")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken("member@budgetwise.test")))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/metrics")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken("ops@budgetwise.test")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,81 @@
+package com.budgetwise.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.model.User;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.PasswordHasher;
+
+/**
+ * A login with the right password succeeds whatever cost the stored hash
+ * was made at, and leaves a weaker hash rehashed at the current cost; a
+ * stronger hash is kept, and a wrong password changes nothing.
+ */
+@SpringBootTest(properties = {
+        "budgetwise.auth.password.cost=5"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AuthPasswordTests {
+
+    private static final String EMAIL = "rehash@budgetwise.test";
+    private static final String STRONGER = "stronger@budgetwise.test";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PasswordHasher passwordHasher;
+
+    @Test
+    void loginRehashesPasswordsMadeAtAnotherCost() throws Exception {
+        TestUsers.create(userRepository, "rehash", EMAIL, new BCryptPasswordEncoder(4).encode(PASSWORD));
+        assertThat(passwordHasher.cost()).isEqualTo(5);
+
+        login("not the password").andExpect(status().isUnauthorized());
+        assertThat(userRepository.findByEmail(EMAIL).getPassword()).startsWith("$2a$04$");
+
+        login(PASSWORD)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("rehash"));
+
+        User stored = userRepository.findByEmail(EMAIL);
+        assertThat(stored.getPassword()).startsWith("$2a$05$");
+        assertThat(passwordHasher.matches(PASSWORD, stored.getPassword())).isTrue();
+        assertThat(stored.isLoggedIn()).isTrue();
+
+        // The new hash works for the next login
+        login(PASSWORD).andExpect(status().isOk());
+    }
+
+    @Test
+    void loginKeepsHashesMadeAtAHigherCost() throws Exception {
+        TestUsers.create(userRepository, "stronger", STRONGER, new BCryptPasswordEncoder(6).encode(PASSWORD));
+
+        login(STRONGER, PASSWORD).andExpect(status().isOk());
+        assertThat(userRepository.findByEmail(STRONGER).getPassword()).startsWith("$2a$06$");
+    }
+
+    private ResultActions login(String password) throws Exception {
+        return login(EMAIL, password);
+    }
+
+    private ResultActions login(String email, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + email + "\", \"password\": \"" + password + "\"}"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.budgetwise.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Login attempts beyond the per-address or per-email budget are refused
+ * with 429 and a Retry-After before any user lookup or password check,
+ * and each refusal is counted under the key that ran out. The address is
+ * checked first, and only failed logins count against an account.
+ */
+@SpringBootTest(properties = {
+        "budgetwise.auth.password.cost=4",
+        "budgetwise.auth.rate-limit.login.per-ip=3",
+        "budgetwise.auth.rate-limit.login.per-email=2",
+        "budgetwise.auth.rate-limit.login.period=1m"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AuthRateLimitTests {
+
+    private static final String OWNER = "owner@budgetwise.test";
+    private static final String PASSWORD = "owner's password";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    @Test
+    void refusesLoginsOverEitherBudget() throws Exception {
+        double emailBefore = throttled("email");
+        double ipBefore = throttled("ip");
+
+        login("10.0.0.1", "first@budgetwise.test", "guess").andExpect(status().isNotFound());
+        login("10.0.0.1", "first@budgetwise.test", "guess").andExpect(status().isNotFound());
+
+        // Third try for the same account; the address still had one token left
+        login("10.0.0.1", "FIRST@budgetwise.test", "guess")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        // A fresh account from the same address, whose budget is now spent
+        login("10.0.0.1", "second@budgetwise.test", "guess")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        assertThat(throttled("email") - emailBefore).isEqualTo(1.0);
+        assertThat(throttled("ip") - ipBefore).isEqualTo(1.0);
+    }
+
+    @Test
+    void exhaustedAddressCannotLockTheOwnerOut() throws Exception {
+        TestUsers.create(userRepository, "owner", OWNER, passwordEncoder.encode(PASSWORD));
+
+        for (int i = 0; i < 3; i++) {
+            login("10.0.0.2", "someone" + i + "@budgetwise.test", "guess").andExpect(status().isNotFound());
+        }
+        // Refused on the address before the owner's budget is touched
+        for (int i = 0; i < 5; i++) {
+            login("10.0.0.2", OWNER, "guess").andExpect(status().isTooManyRequests());
+        }
+
+        // More successful logins than the account's budget: each one hands its token back
+        for (int i = 0; i < 3; i++) {
+            login("10.0.0.3", OWNER, PASSWORD).andExpect(status().isOk());
+        }
+    }
+
+    private ResultActions login(String clientIp, String email, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(clientIp);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + email + "\", \"password\": \"" + password + "\"}"));
+    }
+
+    private double throttled(String key) {
+        Counter counter = meterRegistry.find("budgetwise.auth.throttled")
+                .tag("endpoint", "login")
+                .tag("key", key)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
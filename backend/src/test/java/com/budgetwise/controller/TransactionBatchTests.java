@@ -0,0 +1,103 @@
+package com.budgetwise.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.TransactionType;
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.JwtUtil;
+import com.budgetwise.service.MonthlyRollupService;
+import com.budgetwise.service.TransactionService;
+
+/**
+ * One batch request creates, updates and deletes rows, reports each item
+ * separately, never touches another user's rows and keeps rollups exact.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class TransactionBatchTests {
+
+    private static final String EMAIL = "batch@budgetwise.test";
+    private static final String OTHER = "other@budgetwise.test";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TransactionService transactionService;
+    @Autowired private MonthlyRollupService rollupService;
+    @Autowired private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void createUsers() {
+        TestUsers.create(userRepository, "batcher", EMAIL);
+        TestUsers.create(userRepository, "other", OTHER);
+    }
+
+
+    @Test
+    void appliesEveryOperationAndReportsEachItem() throws Exception {
+        Transaction rent = transactionService.add(new Transaction(LocalDate.of(2024, 3, 1), "expense",
+                "Rent", "Home", 900.0, null, EMAIL, false));
+        Transaction coffee = transactionService.add(new Transaction(LocalDate.of(2024, 3, 2), "expense",
+                "Coffee", "Food", 4.5, null, EMAIL, false));
+        Transaction foreign = transactionService.add(new Transaction(LocalDate.of(2024, 3, 3), "expense",
+                "Not mine", "Food", 10.0, null, OTHER, false));
+
+        String body = """
+                {"operations": [
+                  {"op": "create", "transaction": {"date": "2024-03-05", "type": "income",
+                      "title": "Salary", "category": "Work", "amount": 2500}},
+                  {"op": "update", "id": %d, "transaction": {"date": "2024-03-02", "type": "expense",
+                      "title": "Coffee", "category": "Eating out", "amount": 4.5}},
+                  {"op": "delete", "id": %d},
+                  {"op": "delete", "id": %d},
+                  {"op": "rename", "id": %d}
+                ]}
+                """.formatted(coffee.getId(), rent.getId(), foreign.getId(), rent.getId());
+
+        mockMvc.perform(post("/api/transactions/batch")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[1].status").value(200))
+                .andExpect(jsonPath("$.results[2].status").value(204))
+                .andExpect(jsonPath("$.results[3].status").value(404))
+                .andExpect(jsonPath("$.results[4].status").value(400));
+
+        assertThat(transactionRepository.findById(rent.getId())).isEmpty();
+        assertThat(transactionRepository.findById(foreign.getId())).isPresent();
+        assertThat(transactionRepository.findById(coffee.getId()).orElseThrow().getCategory())
+                .isEqualTo("Eating out");
+        assertThat(transactionRepository.findByUserEmailAndType(EMAIL, TransactionType.INCOME)).hasSize(1);
+        assertThat(rollupService.verify(EMAIL)).isEmpty();
+        assertThat(rollupService.verify(OTHER)).isEmpty();
+    }
+
+    @Test
+    void rejectsEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/transactions/batch")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+}
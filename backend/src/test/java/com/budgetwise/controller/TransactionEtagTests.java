@@ -0,0 +1,94 @@
+package com.budgetwise.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.JwtUtil;
+import com.budgetwise.service.LedgerVersionService;
+import com.budgetwise.service.TransactionService;
+
+/**
+ * Reads carry an ETag from the ledger version: unchanged ledgers answer
+ * 304 with no body, and any write makes the next read a full 200 again.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class TransactionEtagTests {
+
+    private static final String EMAIL = "etag@budgetwise.test";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionService transactionService;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private LedgerVersionService ledgerVersions;
+
+    @BeforeEach
+    void createUser() {
+        TestUsers.create(userRepository, "etag", EMAIL);
+    }
+
+    @Test
+    void unchangedLedgerAnswersNotModifiedUntilItChanges() throws Exception {
+        String token = "Bearer " + jwtUtil.generateToken(EMAIL);
+
+        String etag = mockMvc.perform(get("/api/transactions/summary").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/api/transactions/summary")
+                        .header("Authorization", token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        transactionService.add(new Transaction(LocalDate.of(2024, 1, 10), "income",
+                "Salary", "Work", 100.0, null, EMAIL, false));
+
+        String changed = mockMvc.perform(get("/api/transactions/summary")
+                        .header("Authorization", token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    @Test
+    void listAndSummaryHaveDifferentTags() throws Exception {
+        String token = "Bearer " + jwtUtil.generateToken(EMAIL);
+
+        String list = mockMvc.perform(get("/api/transactions").header("Authorization", token))
+                .andReturn().getResponse().getHeader("ETag");
+        String summary = mockMvc.perform(get("/api/transactions/summary").header("Authorization", token))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(list).isNotEqualTo(summary);
+    }
+
+    @Test
+    void variantsWithEqualHashCodesHaveDifferentTags() {
+        // "Aa" and "BB" share a String.hashCode, so these two page filters did too
+        String first = "page|category=Aa|null|50";
+        String second = "page|category=BB|null|50";
+        assertThat(first.hashCode()).isEqualTo(second.hashCode());
+
+        assertThat(ledgerVersions.etag(EMAIL, first)).isNotEqualTo(ledgerVersions.etag(EMAIL, second));
+    }
+}
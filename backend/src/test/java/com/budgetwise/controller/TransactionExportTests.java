@@ -0,0 +1,124 @@
+package com.budgetwise.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.JwtUtil;
+
+/**
+ * The ledger export streams the caller's rows only, in date order, as CSV
+ * or gzip-compressed JSON lines.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class TransactionExportTests {
+
+    private static final String EMAIL = "export@budgetwise.test";
+    private static final String OTHER = "other@budgetwise.test";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void createLedger() {
+        transactionRepository.deleteAll();
+        TestUsers.create(userRepository, "exporter", EMAIL);
+        TestUsers.create(userRepository, "other", OTHER);
+
+        transactionRepository.saveAll(List.of(
+                new Transaction(LocalDate.of(2024, 2, 1), "expense", "Rent, February", "Home",
+                        900.0, "Paid \"early\"", EMAIL, false),
+                new Transaction(LocalDate.of(2024, 1, 31), "income", "Salary", "Work",
+                        2500.5, null, EMAIL, false),
+                new Transaction(LocalDate.of(2024, 1, 15), "expense", "Someone else's", "Food",
+                        12.0, null, OTHER, false)));
+    }
+
+
+    @Test
+    void exportsOwnRowsAsCsvOldestFirst() throws Exception {
+        MvcResult result = export("/api/transactions/export?format=csv", false);
+
+        assertThat(result.getResponse().getHeader("Content-Disposition")).contains("transactions.csv");
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,date,type,title,category,amount,reserved,description");
+        assertThat(lines[1]).endsWith(",2024-01-31,income,Salary,Work,2500.5,false,");
+        assertThat(lines[2]).endsWith(",2024-02-01,expense,\"Rent, February\",Home,900.0,false,\"Paid \"\"early\"\"\"");
+    }
+
+    @Test
+    void csvCellsCannotStartFormulas() throws Exception {
+        transactionRepository.save(new Transaction(LocalDate.of(2024, 3, 1), "expense",
+                "=HYPERLINK(\"http://evil.test\",\"Refund\")", "@SUM(A1)", 5.0, "-2+3", EMAIL, false));
+
+        MvcResult result = export("/api/transactions/export?format=csv", false);
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(4);
+        assertThat(lines[3]).endsWith(
+                ",2024-03-01,expense,\"'=HYPERLINK(\"\"http://evil.test\"\",\"\"Refund\"\")\",'@SUM(A1),5.0,false,'-2+3");
+    }
+
+    @Test
+    void exportsJsonLinesWithGzip() throws Exception {
+        MvcResult result = export("/api/transactions/export?format=jsonl", true);
+
+        assertThat(result.getResponse().getHeader("Content-Encoding")).isEqualTo("gzip");
+        String[] lines = gunzip(result.getResponse().getContentAsByteArray()).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"title\":\"Salary\"", "\"amount\":2500.5");
+        assertThat(lines[1]).contains("\"title\":\"Rent, February\"");
+    }
+
+    @Test
+    void rejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/transactions/export?format=xml")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(EMAIL)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MvcResult export(String url, boolean gzip) throws Exception {
+        var builder = get(url).header("Authorization", "Bearer " + jwtUtil.generateToken(EMAIL));
+        if (gzip) builder.header("Accept-Encoding", "gzip");
+
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.budgetwise.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.dto.ChangeCursor;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.JwtUtil;
+import com.budgetwise.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A client that keeps its cursor receives exactly the rows written and the
+ * ids deleted since its last call, and its change-event stream closes after
+ * its own timeout so it reconnects.
+ */
+@SpringBootTest(properties = {
+        "budgetwise.ledger.events.timeout=300ms"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class TransactionSyncTests {
+
+    private static final String EMAIL = "sync@budgetwise.test";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionService transactionService;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void createUser() {
+        TestUsers.create(userRepository, "sync", EMAIL);
+    }
+
+    @Test
+    void eventStreamEndsAfterItsTimeout() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/transactions/events")
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(EMAIL)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Completes on its own; the client then reconnects and starts from a new "ready"
+        stream.getAsyncResult(5000);
+        assertThat(stream.getResponse().getContentAsString()).contains("event:ready");
+    }
+
+    @Test
+    void returnsOnlyWhatChangedSinceTheCursor() throws Exception {
+        String token = "Bearer " + jwtUtil.generateToken(EMAIL);
+        Transaction rent = transactionService.add(tx("Rent", 900.0));
+        Transaction coffee = transactionService.add(tx("Coffee", 4.5));
+
+        JsonNode snapshot = changes(token, null);
+        String cursor = snapshot.get("cursor").asText();
+
+        transactionService.delete(rent.getId(), EMAIL, null);
+        coffee.setCategory("Eating out");
+        transactionService.update(coffee);
+        Transaction lunch = transactionService.add(tx("Lunch", 12.0));
+
+        mockMvc.perform(get("/api/transactions/changes").param("since", cursor)
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserts[*].id").value(containsInAnyOrder(
+                        coffee.getId().intValue(), lunch.getId().intValue())))
+                .andExpect(jsonPath("$.deleted[*]").value(containsInAnyOrder(rent.getId().intValue())));
+
+        String latest = changes(token, cursor).get("cursor").asText();
+        mockMvc.perform(get("/api/transactions/changes").param("since", latest)
+                        .header("Authorization", token))
+                .andExpect(jsonPath("$.upserts", hasSize(0)))
+                .andExpect(jsonPath("$.deleted", hasSize(0)));
+    }
+
+    @Test
+    void expiredCursorAsksForAFullResync() throws Exception {
+        String stale = new ChangeCursor(1, Instant.now().minus(Duration.ofDays(365))).encode();
+
+        mockMvc.perform(get("/api/transactions/changes").param("since", stale)
+                        .header("Authorization", "Bearer " + jwtUtil.generateToken(EMAIL)))
+                .andExpect(status().isGone());
+    }
+
+    private JsonNode changes(String token, String since) throws Exception {
+        var request = get("/api/transactions/changes").header("Authorization", token);
+        if (since != null) request.param("since", since);
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static Transaction tx(String title, double amount) {
+        return new Transaction(LocalDate.of(2024, 4, 1), "expense", title, "Food", amount, null, EMAIL, false);
+    }
+}
@@ -0,0 +1,128 @@
+package com.budgetwise.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.security.JwtUtil;
+import com.budgetwise.service.MonthlyRollupService;
+import com.budgetwise.service.TransactionService;
+
+/**
+ * Single-row reads and writes only see the caller's rows, and an edit or
+ * delete based on a version another device has already replaced is
+ * refused with 409 instead of overwriting it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class TransactionVersionTests {
+
+    private static final String EMAIL = "versions@budgetwise.test";
+    private static final String OTHER = "intruder@budgetwise.test";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TransactionService transactionService;
+    @Autowired private MonthlyRollupService rollupService;
+    @Autowired private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void createUsers() {
+        TestUsers.create(userRepository, "versions", EMAIL);
+        TestUsers.create(userRepository, "intruder", OTHER);
+    }
+
+
+    @Test
+    void staleEditIsRefusedAndTheFirstOneKept() throws Exception {
+        Transaction rent = transactionService.add(new Transaction(LocalDate.of(2024, 5, 1), "expense",
+                "Rent", "Home", 900.0, null, EMAIL, false));
+        assertThat(rent.getVersion()).isZero();
+
+        // Two devices read version 0; the first save wins
+        mockMvc.perform(put("/api/transactions/" + rent.getId())
+                        .header("Authorization", token(EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Rent", 950, 0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.amount").value(950.0));
+
+        mockMvc.perform(put("/api/transactions/" + rent.getId())
+                        .header("Authorization", token(EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Rent (old)", 900, 0)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/transactions/" + rent.getId())
+                        .param("version", "0")
+                        .header("Authorization", token(EMAIL)))
+                .andExpect(status().isConflict());
+
+        Transaction stored = transactionRepository.findById(rent.getId()).orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo("Rent");
+        assertThat(stored.getAmount()).isEqualTo(950.0);
+        assertThat(stored.getVersion()).isEqualTo(1L);
+        assertThat(rollupService.verify(EMAIL)).isEmpty();
+
+        mockMvc.perform(delete("/api/transactions/" + rent.getId())
+                        .param("version", "1")
+                        .header("Authorization", token(EMAIL)))
+                .andExpect(status().isNoContent());
+        assertThat(transactionRepository.findById(rent.getId())).isEmpty();
+    }
+
+    @Test
+    void anotherUsersRowLooksMissing() throws Exception {
+        Transaction salary = transactionService.add(new Transaction(LocalDate.of(2024, 5, 2), "income",
+                "Salary", "Work", 2500.0, null, EMAIL, false));
+        String path = "/api/transactions/" + salary.getId();
+
+        mockMvc.perform(get(path).header("Authorization", token(OTHER)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put(path)
+                        .header("Authorization", token(OTHER))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Mine now", 1, 0)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete(path).header("Authorization", token(OTHER)))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get(path).header("Authorization", token(EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Salary"));
+        assertThat(transactionRepository.findById(salary.getId()).orElseThrow().getUserEmail())
+                .isEqualTo(EMAIL);
+    }
+
+    private String token(String email) {
+        return "Bearer " + jwtUtil.generateToken(email);
+    }
+
+    private static String body(String title, double amount, long version) {
+        return """
+                {"date": "2024-05-01", "type": "expense", "title": "%s", "category": "Home",
+                 "amount": %s, "version": %d}
+                """.formatted(title, amount, version);
+    }
+}
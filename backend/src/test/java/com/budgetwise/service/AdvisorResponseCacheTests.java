@@ -0,0 +1,66 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Ledger changes drop a user's cached answers only once their transaction
+ * commits, and not at all when it rolls back.
+ */
+class AdvisorResponseCacheTests {
+
+    private static final String EMAIL = "advice@budgetwise.test";
+
+    private final AdvisorResponseCache cache = new AdvisorResponseCache(
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    @AfterEach
+    void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    void changesDropAnswersOnCommit() {
+        cache.put(EMAIL, "How am I doing?", "f1", "Fine");
+        cache.put("other@budgetwise.test", "How am I doing?", "f1", "Great");
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidateUser(EMAIL);
+        cache.invalidateUser(EMAIL);
+        assertThat(cache.get(EMAIL, "how am i doing", "f1")).isEqualTo("Fine");
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(cache.get(EMAIL, "how am i doing", "f1")).isNull();
+        assertThat(cache.get("other@budgetwise.test", "how am i doing", "f1")).isEqualTo("Great");
+    }
+
+    @Test
+    void rolledBackChangesKeepAnswers() {
+        cache.put(EMAIL, "How am I doing?", "f1", "Fine");
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidateUser(EMAIL);
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clear();
+
+        assertThat(cache.get(EMAIL, "how am i doing", "f1")).isEqualTo("Fine");
+
+        // Outside a transaction the entries go straight away
+        cache.invalidateUser(EMAIL);
+        assertThat(cache.get(EMAIL, "how am i doing", "f1")).isNull();
+    }
+}
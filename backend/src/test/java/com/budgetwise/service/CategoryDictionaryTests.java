@@ -0,0 +1,43 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.budgetwise.repository.CategoryDictionary;
+
+/**
+ * Categories are looked up and added on the caller's transaction-bound
+ * connection, so a single-connection pool is enough, and a category added
+ * by a transaction that rolls back is forgotten with it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@ActiveProfiles("test")
+class CategoryDictionaryTests {
+
+    @Autowired private CategoryDictionary categoryDictionary;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void newCategoryIsSharedOnlyOnceCommitted() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Long id = categoryDictionary.idOf("Pottery");
+            assertThat(id).isNotNull();
+            assertThat(categoryDictionary.find("Pottery")).isEqualTo(id);
+            assertThat(categoryDictionary.nameOf(id)).isEqualTo("Pottery");
+            status.setRollbackOnly();
+        });
+        assertThat(categoryDictionary.find("Pottery")).isNull();
+
+        Long id = transactionTemplate.execute(status -> categoryDictionary.idOf("Pottery"));
+        assertThat(categoryDictionary.find("Pottery")).isEqualTo(id);
+        assertThat(categoryDictionary.nameOf(id)).isEqualTo("Pottery");
+    }
+}
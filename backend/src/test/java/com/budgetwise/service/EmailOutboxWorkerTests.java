@@ -0,0 +1,149 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.budgetwise.model.EmailOutbox;
+import com.budgetwise.repository.CategoryDictionary;
+import com.budgetwise.repository.EmailOutboxRepository;
+import com.budgetwise.repository.UserIdDirectory;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({EmailOutboxWorker.class, EmailOutboxService.class, EmailOutboxPurgeJob.class, EmailOutboxWorkerTests.MailConfig.class,
+        CategoryDictionary.class, UserIdDirectory.class}) // used by the transaction entity's converters
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the worker must see committed rows
+class EmailOutboxWorkerTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @TestConfiguration
+    static class MailConfig {
+
+        @Bean
+        JavaMailSender mailSender() {
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost("localhost");
+            sender.setPort(ServerSetupTest.SMTP.getPort());
+            return sender;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired private EmailOutboxService outboxService;
+    @Autowired private EmailOutboxRepository outboxRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private EmailOutboxPurgeJob purgeJob;
+
+    @BeforeEach
+    void clearOutbox() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void committedRowIsDeliveredWithoutWaitingForPoll() throws Exception {
+        EmailOutbox queued = outboxService.enqueue("user@budgetwise.test", "Hello", "Your OTP is 123456");
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertThat(received.getAllRecipients()[0].toString()).isEqualTo("user@budgetwise.test");
+        assertThat(received.getSubject()).isEqualTo("Hello");
+
+        EmailOutbox row = awaitStatus(queued.getId(), EmailOutbox.Status.SENT);
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getSentAt()).isNotNull();
+        assertThat(meterRegistry.timer("budgetwise.mail.delivery.latency").count()).isEqualTo(1);
+    }
+
+    @Test
+    void unreachableServerSchedulesRetryWithBackoff() throws Exception {
+        JavaMailSenderImpl deadServer = new JavaMailSenderImpl();
+        deadServer.setHost("localhost");
+        deadServer.setPort(ServerSetupTest.SMTP.getPort() + 1);
+
+        EmailOutboxWorker worker = new EmailOutboxWorker(outboxRepository, deadServer,
+                transactionManager, new SimpleMeterRegistry(),
+                1, 20, 3, Duration.ofMinutes(1), Duration.ofMinutes(5));
+        try {
+            EmailOutbox row = outboxRepository.save(
+                    new EmailOutbox("user@budgetwise.test", "Hello", "body"));
+            worker.wakeUp();
+
+            EmailOutbox retried = awaitAttempts(row.getId(), 1);
+            assertThat(retried.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+            assertThat(retried.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(30));
+            assertThat(retried.getLastError()).isNotBlank();
+        } finally {
+            worker.shutdown();
+        }
+    }
+
+    @Test
+    void purgeDropsOnlyRowsSentBeforeTheRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox old = outboxRepository.save(finished(EmailOutbox.Status.SENT, now.minusDays(8)));
+        EmailOutbox recent = outboxRepository.save(finished(EmailOutbox.Status.SENT, now.minusDays(1)));
+        EmailOutbox failed = outboxRepository.save(finished(EmailOutbox.Status.FAILED, now.minusDays(30)));
+
+        assertThat(purgeJob.purge(now)).isEqualTo(1);
+        assertThat(outboxRepository.existsById(old.getId())).isFalse();
+        assertThat(outboxRepository.existsById(recent.getId())).isTrue();
+        assertThat(outboxRepository.existsById(failed.getId())).isTrue();
+    }
+
+    private static EmailOutbox finished(EmailOutbox.Status status, LocalDateTime at) {
+        EmailOutbox row = new EmailOutbox("user@budgetwise.test", "Hello", "body");
+        row.setStatus(status);
+        row.setAttempts(1);
+        row.setSentAt(status == EmailOutbox.Status.SENT ? at : null);
+        row.setNextAttemptAt(at);
+        return row;
+    }
+
+    private EmailOutbox awaitStatus(Long id, EmailOutbox.Status status) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            EmailOutbox row = outboxRepository.findById(id).orElseThrow();
+            if (row.getStatus() == status) return row;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Outbox row " + id + " never reached " + status);
+    }
+
+    private EmailOutbox awaitAttempts(Long id, int attempts) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            EmailOutbox row = outboxRepository.findById(id).orElseThrow();
+            if (row.getAttempts() >= attempts) return row;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Outbox row " + id + " was never attempted");
+    }
+}
@@ -0,0 +1,92 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.dto.TransactionSummary;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Summaries served from the cached columns match the ledger, and edits
+ * made through TransactionService move the cached entry forward instead
+ * of forcing a reload.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerCacheTests {
+
+    private static final String EMAIL = "columns@budgetwise.test";
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionService transactionService;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    void summaryFollowsEditsWithoutReloading() {
+        TestUsers.create(userRepository, "columns", EMAIL);
+
+        LocalDate upcoming = LocalDate.now().plusDays(10);
+        transactionService.add(tx(LocalDate.of(2024, 1, 10), "income", "Salary", "Work", 2500.0, false));
+        Transaction rent = transactionService.add(tx(LocalDate.of(2024, 1, 1), "expense", "Rent", "Home", 900.0, false));
+        Transaction coffee = transactionService.add(tx(LocalDate.of(2024, 2, 3), "expense", "Coffee", "Food", 4.5, false));
+        transactionService.add(tx(LocalDate.of(2024, 2, 10), "income", "Savings", "Savings", 100.0, true));
+        transactionService.add(tx(upcoming, "income", "Savings", "Savings", 50.0, true));
+
+        TransactionSummary before = transactionService.getSummary(EMAIL, null, null, "month");
+
+        assertThat(before.totalIncome()).isEqualTo(2500.0);
+        assertThat(before.totalExpenses()).isEqualTo(1004.5);
+        assertThat(before.reservedSavings()).isEqualTo(50.0);
+        assertThat(before.categories()).containsExactly(
+                new TransactionSummary.CategoryTotal("Food", 4.5),
+                new TransactionSummary.CategoryTotal("Home", 900.0),
+                new TransactionSummary.CategoryTotal("Savings", 100.0));
+        assertThat(before.periods()).hasSize(3);
+        assertThat(before.periods().get(0))
+                .isEqualTo(new TransactionSummary.PeriodTotal("2024-01", 2500.0, 900.0, 1600.0));
+        assertThat(before.periods().get(1))
+                .isEqualTo(new TransactionSummary.PeriodTotal("2024-02", 100.0, 104.5, 0.0));
+
+        double hitsBefore = hits();
+        transactionService.delete(rent.getId(), EMAIL, null);
+        coffee.setAmount(5.5);
+        coffee.setCategory("Eating out");
+        transactionService.update(coffee);
+        transactionService.add(tx(LocalDate.of(2024, 3, 1), "income", "Bonus", "Work", 200.0, false));
+
+        TransactionSummary after = transactionService.getSummary(EMAIL, null, LocalDate.of(2024, 12, 31), "year");
+
+        assertThat(hits()).isGreaterThan(hitsBefore);
+        assertThat(after.totalIncome()).isEqualTo(2700.0);
+        assertThat(after.totalExpenses()).isEqualTo(105.5);
+        assertThat(after.reservedSavings()).isEqualTo(0.0);
+        assertThat(after.categories()).containsExactly(
+                new TransactionSummary.CategoryTotal("Eating out", 5.5),
+                new TransactionSummary.CategoryTotal("Savings", 100.0));
+        assertThat(after.periods()).isEqualTo(List.of(
+                new TransactionSummary.PeriodTotal("2024", 2800.0, 105.5, 2694.5)));
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "budgetwise.ledger.columns")
+                .tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private static Transaction tx(LocalDate date, String type, String title, String category,
+                                  double amount, boolean reserved) {
+        return new Transaction(date, type, title, category, amount, null, EMAIL, reserved);
+    }
+}
@@ -0,0 +1,61 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Connections start with a "ready" event, see bursts as one event with the
+ * latest version, and are capped per user.
+ */
+class LedgerChangeNotifierTests {
+
+    private static final String EMAIL = "events@budgetwise.test";
+
+    private final LedgerChangeNotifier notifier = new LedgerChangeNotifier(
+            new SimpleMeterRegistry(), Duration.ofMillis(100), Duration.ofSeconds(30), 2);
+
+    @Test
+    void burstOfCommitsArrivesAsTheLatestVersion() throws Exception {
+        Flux<ServerSentEvent<String>> events = notifier.subscribe(EMAIL, () -> 7);
+
+        CompletableFuture<ServerSentEvent<String>> ready = new CompletableFuture<>();
+        CompletableFuture<ServerSentEvent<String>> ledger = new CompletableFuture<>();
+        Disposable connection = events.subscribe(event -> {
+            if ("ready".equals(event.event())) ready.complete(event);
+            if ("ledger".equals(event.event())) ledger.complete(event);
+        });
+
+        assertThat(ready.get(2, TimeUnit.SECONDS).data()).startsWith("{\"version\":7,\"cursor\":");
+
+        notifier.publish(EMAIL, 8);
+        notifier.publish(EMAIL, 9);
+        assertThat(ledger.get(2, TimeUnit.SECONDS).data()).isEqualTo("{\"version\":9}");
+
+        connection.dispose();
+    }
+
+    @Test
+    void refusesConnectionsOverThePerUserLimit() {
+        Disposable first = notifier.subscribe(EMAIL, () -> 0).subscribe();
+        Disposable second = notifier.subscribe(EMAIL, () -> 0).subscribe();
+
+        assertThat(notifier.subscribe(EMAIL, () -> 0)).isNull();
+
+        // Closing one frees its slot
+        first.dispose();
+        assertThat(notifier.subscribe(EMAIL, () -> 0)).isNotNull();
+
+        second.dispose();
+    }
+}
@@ -0,0 +1,76 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.dto.AdvisorSnapshot;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.UserRepository;
+
+/**
+ * Rollups add up money in cents, so many small amounts total exactly, and
+ * a row is never stored for an owner without an account. The maintenance
+ * commands report through the application's exit code.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MonthlyRollupServiceTests {
+
+    private static final String EMAIL = "rollups@budgetwise.test";
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TransactionService transactionService;
+    @Autowired private MonthlyRollupService rollupService;
+    @Autowired private AdvisorService advisorService;
+    @Autowired private RollupCommandRunner commandRunner;
+
+    @Test
+    void smallAmountsAddUpExactly() {
+        TestUsers.create(userRepository, "rollups", EMAIL);
+        for (int i = 0; i < 10; i++) {
+            transactionService.add(new Transaction(LocalDate.of(2024, 4, 1 + i), "income",
+                    "Change", "Jar", 0.1, null, EMAIL, false));
+        }
+        transactionService.add(new Transaction(LocalDate.of(2024, 4, 20), "expense",
+                "Gum", "Food", 0.3, null, EMAIL, false));
+
+        assertThat(rollupService.totalsByType(EMAIL)).containsEntry("income", 100L).containsEntry("expense", 30L);
+        assertThat(rollupService.verify(EMAIL)).isEmpty();
+
+        AdvisorSnapshot snapshot = advisorService.snapshot(EMAIL).orElseThrow();
+        assertThat(snapshot.totalIncome()).isEqualTo(1.0);
+        assertThat(snapshot.totalBalance()).isEqualTo(0.7);
+    }
+
+    @Test
+    void rowsForUnknownOwnersAreRefused() {
+        long before = transactionRepository.count();
+
+        assertThatThrownBy(() -> transactionService.add(new Transaction(LocalDate.of(2024, 4, 1), "expense",
+                "Rent", "Home", 900.0, null, "nobody@budgetwise.test", false)))
+                .hasStackTraceContaining("No account for transaction owner nobody@budgetwise.test");
+        assertThat(transactionRepository.count()).isEqualTo(before);
+    }
+
+    @Test
+    void rebuildCommandLeavesAnExitCodeInsteadOfExiting() {
+        assertThat(commandRunner.ranCommand()).isFalse();
+
+        commandRunner.run(new DefaultApplicationArguments("--rollup-rebuild"));
+
+        assertThat(commandRunner.ranCommand()).isTrue();
+        assertThat(commandRunner.getExitCode()).isZero();
+        assertThat(rollupService.verify()).isEmpty();
+    }
+}
@@ -0,0 +1,182 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Drives OpenRouterService against a local stub provider that can be told to
+ * answer slowly or fail.
+ */
+class OpenRouterServiceResilienceTests {
+
+    private static final String ANSWER = "{\"choices\":[{\"message\":{\"content\":\"Save 20% of your income.\"}}]}";
+
+    private HttpServer stub;
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile long delayMillis;
+    private volatile int status = 200;
+
+    private MeterRegistry meterRegistry;
+    private AiCallGuard guard;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/chat", exchange -> {
+            hits.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(delayMillis);
+                byte[] body = (status == 200 ? ANSWER : "{\"error\":\"upstream\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException | IOException e) {
+                // The client gave up first
+            } finally {
+                exchange.close();
+            }
+        });
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+        callers.shutdownNow();
+    }
+
+    @Test
+    void answersFromTheProvider() {
+        OpenRouterService service = service(limits(Duration.ofSeconds(2), 4, 0, Duration.ZERO));
+
+        assertThat(service.askOpenRouter("How can I save?")).isEqualTo("Save 20% of your income.");
+        assertThat(guard.getState()).isEqualTo(AiCallGuard.State.CLOSED);
+    }
+
+    @Test
+    void deadlineCutsOffASlowProvider() {
+        OpenRouterService service = service(limits(Duration.ofMillis(200), 4, 0, Duration.ZERO));
+        delayMillis = 3000;
+
+        long start = System.nanoTime();
+        String answer = service.askOpenRouter("How can I save?");
+
+        assertThat(answer).isEqualTo(OpenRouterService.FALLBACK_RESPONSE);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void failuresOpenTheCircuitAndStopCallingTheProvider() {
+        OpenRouterService service = service(limits(Duration.ofSeconds(2), 4, 0, Duration.ZERO));
+        status = 500;
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(service.askOpenRouter("How can I save?")).isEqualTo(OpenRouterService.FALLBACK_RESPONSE);
+        }
+        assertThat(guard.getState()).isEqualTo(AiCallGuard.State.OPEN);
+
+        assertThatThrownBy(() -> service.askOpenRouter("How can I save?"))
+                .isInstanceOfSatisfying(AiUnavailableException.class, e -> {
+                    assertThat(e.getReason()).isEqualTo(AiUnavailableException.Reason.CIRCUIT_OPEN);
+                    assertThat(e.getRetryAfter()).isPositive();
+                });
+        assertThat(hits.get()).isEqualTo(4);
+        assertThat(rejected("circuit")).isEqualTo(1);
+    }
+
+    @Test
+    void fullBulkheadRejectsImmediately() throws Exception {
+        OpenRouterService service = service(limits(Duration.ofSeconds(5), 1, 0, Duration.ofSeconds(5)));
+        delayMillis = 1000;
+
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(
+                () -> service.askOpenRouter("first"), callers);
+        await(() -> hits.get() == 1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.askOpenRouter("second"))
+                .isInstanceOfSatisfying(AiUnavailableException.class, e ->
+                        assertThat(e.getReason()).isEqualTo(AiUnavailableException.Reason.BULKHEAD_FULL));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(200));
+
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEqualTo("Save 20% of your income.");
+        assertThat(rejected("bulkhead")).isEqualTo(1);
+        assertThat(hits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void queuedCallerWaitsForAPermitAndIsCounted() throws Exception {
+        OpenRouterService service = service(limits(Duration.ofSeconds(5), 1, 1, Duration.ofSeconds(5)));
+        delayMillis = 500;
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(
+                () -> service.askOpenRouter("first"), callers);
+        await(() -> hits.get() == 1);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(
+                () -> service.askOpenRouter("second"), callers);
+
+        await(() -> meterRegistry.get("budgetwise.ai.bulkhead.queue").gauge().value() == 1);
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("Save 20% of your income.");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("Save 20% of your income.");
+        assertThat(meterRegistry.get("budgetwise.ai.bulkhead.queue").gauge().value()).isZero();
+        assertThat(rejected("bulkhead")).isZero();
+    }
+
+    // Breaker judges the last 4 calls and trips at 50% failures
+    private static AiResilienceProperties limits(Duration readTimeout, int maxConcurrent,
+                                                 int maxQueue, Duration maxWait) {
+        return new AiResilienceProperties(Duration.ofSeconds(1), readTimeout,
+                maxConcurrent, maxQueue, maxWait,
+                4, 4, 50, Duration.ofSeconds(10), 100, Duration.ofMinutes(1), 1);
+    }
+
+    private OpenRouterService service(AiResilienceProperties props) {
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new AiCallGuard(props, meterRegistry);
+        OpenRouterClient client = new OpenRouterClient("test-key",
+                "http://localhost:" + stub.getAddress().getPort() + "/chat",
+                new ObjectMapper(), WebClient.builder(), props);
+        return new OpenRouterService(client, guard);
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("budgetwise.ai.rejected").tag("reason", reason).counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (condition.getAsBoolean()) return;
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Condition not met in time");
+    }
+}
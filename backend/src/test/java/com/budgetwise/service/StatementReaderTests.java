@@ -0,0 +1,100 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Row mapping of the statement readers: sign conventions, debit/credit
+ * columns, per-row errors and both OFX flavours.
+ */
+class StatementReaderTests {
+
+    @Test
+    void csvRowsMapToTransactionsAndReportBadLines() throws IOException {
+        List<StatementReader.Row> rows = readAll(StatementReader.Format.CSV, """
+                \uFEFFDate,Payee,Category,Amount
+                2024-01-15,"Coffee, large",Food,-4.50
+                15/01/2024,Salary,,"₹1,250.00"
+                2024-01-16,Broken,Food,abc
+                """);
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).transaction().getType()).isEqualTo("expense");
+        assertThat(rows.get(0).transaction().getTitle()).isEqualTo("Coffee, large");
+        assertThat(rows.get(0).transaction().getAmount()).isEqualTo(4.50);
+        assertThat(rows.get(1).transaction().getType()).isEqualTo("income");
+        assertThat(rows.get(1).transaction().getCategory()).isEqualTo("Other");
+        assertThat(rows.get(1).transaction().getAmount()).isEqualTo(1250.00);
+        assertThat(rows.get(2).line()).isEqualTo(4);
+        assertThat(rows.get(2).error()).contains("abc");
+    }
+
+    @Test
+    void csvDebitAndCreditColumnsDecideTheType() throws IOException {
+        List<StatementReader.Row> rows = readAll(StatementReader.Format.CSV, """
+                Posted Date,Narration,Debit,Credit
+                02-03-2024,Rent,900.00,
+                03-03-2024,Refund,,12.00
+                """);
+
+        assertThat(rows.get(0).transaction().getType()).isEqualTo("expense");
+        assertThat(rows.get(0).transaction().getDate()).isEqualTo(LocalDate.of(2024, 3, 2));
+        assertThat(rows.get(1).transaction().getType()).isEqualTo("income");
+    }
+
+    @Test
+    void csvDropsTheQuoteOurExportPutsBeforeFormulaLikeText() throws IOException {
+        List<StatementReader.Row> rows = readAll(StatementReader.Format.CSV, """
+                id,date,type,title,category,amount,reserved,description
+                7,2024-03-01,expense,'=SUM(A1),'@Home,5.0,false,'it's -2+3
+                """);
+
+        assertThat(rows.get(0).transaction().getTitle()).isEqualTo("=SUM(A1)");
+        assertThat(rows.get(0).transaction().getCategory()).isEqualTo("@Home");
+        assertThat(rows.get(0).transaction().getDescription()).isEqualTo("'it's -2+3");
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsRejectedAsAWhole() {
+        assertThatThrownBy(() -> readAll(StatementReader.Format.CSV, "Title,Category\nRent,Home\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("date");
+    }
+
+    @Test
+    void ofxReadsSgmlAndXmlTransactions() throws IOException {
+        List<StatementReader.Row> rows = readAll(StatementReader.Format.OFX, """
+                OFXHEADER:100
+                <OFX><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240115120000<TRNAMT>-25.00<NAME>Grocer &amp; Co
+                </STMTTRN>
+                <STMTTRN><TRNTYPE>CREDIT</TRNTYPE><DTPOSTED>20240201</DTPOSTED><TRNAMT>100.00</TRNAMT><MEMO>Interest</MEMO></STMTTRN>
+                </BANKTRANLIST></OFX>
+                """);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).transaction().getTitle()).isEqualTo("Grocer & Co");
+        assertThat(rows.get(0).transaction().getType()).isEqualTo("expense");
+        assertThat(rows.get(1).transaction().getTitle()).isEqualTo("Interest");
+        assertThat(rows.get(1).transaction().getDate()).isEqualTo(LocalDate.of(2024, 2, 1));
+    }
+
+    private static List<StatementReader.Row> readAll(StatementReader.Format format, String text) throws IOException {
+        List<StatementReader.Row> rows = new ArrayList<>();
+        try (StatementReader reader = StatementReader.open(format,
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)))) {
+            StatementReader.Row row;
+            while ((row = reader.next()) != null) rows.add(row);
+        }
+        return rows;
+    }
+}
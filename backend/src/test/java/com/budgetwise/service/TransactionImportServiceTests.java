@@ -0,0 +1,66 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.dto.ImportProgress;
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.UserRepository;
+
+/**
+ * Identical rows within one statement all import; importing an
+ * overlapping statement again only adds the rows not stored yet.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionImportServiceTests {
+
+    private static final String EMAIL = "importer@budgetwise.test";
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private TransactionImportService importService;
+
+    @Test
+    void repeatedRowsImportOnceEach() throws IOException {
+        TestUsers.create(userRepository, "importer", EMAIL);
+
+        String statement = """
+                Date,Payee,Category,Amount
+                2024-06-01,Coffee,Food,-3.20
+                2024-06-01,Coffee,Food,-3.20
+                2024-06-02,Salary,Work,2000
+                """;
+
+        ImportProgress first = importCsv(statement);
+        assertThat(first.imported()).isEqualTo(3);
+        assertThat(first.duplicates()).isZero();
+
+        ImportProgress again = importCsv(statement);
+        assertThat(again.imported()).isZero();
+        assertThat(again.duplicates()).isEqualTo(3);
+
+        // The next statement overlaps and has a third coffee that morning
+        ImportProgress overlapping = importCsv(statement + "2024-06-01,coffee,Food,-3.20\n");
+        assertThat(overlapping.imported()).isEqualTo(1);
+        assertThat(overlapping.duplicates()).isEqualTo(3);
+
+        assertThat(transactionRepository.findByUserEmail(EMAIL)).hasSize(4);
+    }
+
+    private ImportProgress importCsv(String text) throws IOException {
+        try (StatementReader reader = StatementReader.open(StatementReader.Format.CSV,
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)))) {
+            return importService.importStatement(EMAIL, reader, progress -> {});
+        }
+    }
+}
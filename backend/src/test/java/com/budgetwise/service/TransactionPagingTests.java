@@ -0,0 +1,59 @@
+package com.budgetwise.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.budgetwise.TestUsers;
+import com.budgetwise.dto.TransactionPage;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.repository.UserRepository;
+
+/**
+ * Keyset pages walk the whole ledger newest first, undated rows last,
+ * without skipping or repeating a row.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionPagingTests {
+
+    private static final String EMAIL = "pages@budgetwise.test";
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private TransactionService transactionService;
+
+    @Test
+    void undatedRowsArePagedThroughLast() {
+        TestUsers.create(userRepository, "pages", EMAIL);
+        Transaction undated1 = transactionService.add(tx(null, "Cash"));
+        Transaction march = transactionService.add(tx(LocalDate.of(2024, 3, 1), "Rent"));
+        Transaction undated2 = transactionService.add(tx(null, "Gift"));
+        Transaction january = transactionService.add(tx(LocalDate.of(2024, 1, 5), "Books"));
+        Transaction undated3 = transactionService.add(tx(null, "Tips"));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = transactionService.getPage(EMAIL, null, cursor, 2);
+            page.items().forEach(t -> seen.add(t.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertThat(seen).containsExactly(march.getId(), january.getId(),
+                undated3.getId(), undated2.getId(), undated1.getId());
+        assertThat(pages).isEqualTo(3);
+    }
+
+    private static Transaction tx(LocalDate date, String title) {
+        return new Transaction(date, "expense", title, "Other", 10.0, null, EMAIL, false);
+    }
+}
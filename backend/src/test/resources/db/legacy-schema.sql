@@ -0,0 +1,10 @@
+-- The schema a BudgetWise database had before migrations, as Hibernate's
+-- ddl-auto=update generated it from the original entities (MySQL dialect,
+-- generated constraint names included). MigrationTests baselines it at V1
+-- the way a production database is on first start.
+
+create table otp_verification (used bit not null, expiry_time datetime(6), id bigint not null auto_increment, email varchar(255), otp varchar(255), primary key (id)) engine=InnoDB;
+create table transactions (amount float(53), date date, reserved bit not null, id bigint not null auto_increment, user_email varchar(255), category varchar(255), description varchar(500), title varchar(255), type varchar(255), primary key (id)) engine=InnoDB;
+create table users (logged_in bit not null, verified bit not null, id bigint not null auto_increment, otp_generated_time datetime(6), email varchar(255) not null, otp varchar(255), password varchar(255) not null, username varchar(255) not null, primary key (id)) engine=InnoDB;
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
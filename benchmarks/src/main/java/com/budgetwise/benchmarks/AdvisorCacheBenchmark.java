@@ -0,0 +1,45 @@
+package com.budgetwise.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.budgetwise.service.AdvisorResponseCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cost of answering a repeated advisor question from the response cache,
+ * against the seconds a round trip to the model takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdvisorCacheBenchmark {
+
+    private static final String FINGERPRINT = "85000.00|5000.00|42000.00|43000.00";
+
+    private AdvisorResponseCache cache;
+
+    @Setup
+    public void setUp() {
+        cache = new AdvisorResponseCache(new SimpleMeterRegistry(), 5000, Duration.ofMinutes(30));
+        for (int u = 0; u < 1000; u++) {
+            cache.put("user" + u + "@budgetwise.com", "How can I save more?", FINGERPRINT, "Cut dining out by 20%.");
+        }
+    }
+
+    @Benchmark
+    public String hit() {
+        return cache.get("user500@budgetwise.com", "  how can I save more ", FINGERPRINT);
+    }
+
+    @Benchmark
+    public String miss() {
+        return cache.get("user500@budgetwise.com", "How can I save more?", "0.00|0.00|0.00|0.00");
+    }
+}
@@ -0,0 +1,94 @@
+package com.budgetwise.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.budgetwise.model.Transaction;
+import com.budgetwise.service.MonthlyRollupService;
+
+/**
+ * The dashboard arithmetic behind AIController.chat: the original four
+ * stream passes over the full ledger against summing pre-aggregated
+ * monthly rollups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdvisorSummaryBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int size;
+
+    private List<Transaction> transactions;
+    private List<double[]> rollupRows;
+    private List<String> rollupTypes;
+
+    @Setup
+    public void setUp() {
+        transactions = Fixtures.ledger(Fixtures.USER, size, 42);
+
+        // What monthly_rollup holds for the same ledger: one row per (period, type, category)
+        Map<String, double[]> rollups = new HashMap<>();
+        for (Transaction t : transactions) {
+            String key = MonthlyRollupService.rollupType(t.getType(), t.isReserved())
+                    + "|" + t.getDate().getYear() + "-" + t.getDate().getMonthValue()
+                    + "|" + t.getCategory();
+            rollups.computeIfAbsent(key, k -> new double[1])[0] += t.getAmount();
+        }
+        rollupRows = rollups.values().stream().toList();
+        rollupTypes = rollups.keySet().stream().map(k -> k.substring(0, k.indexOf('|'))).toList();
+    }
+
+    @Benchmark
+    public String streamsOverLedger() {
+        double totalIncome = transactions.stream()
+                .filter(t -> "income".equals(t.getType()) && !t.isReserved())
+                .mapToDouble(t -> t.getAmount()).sum();
+
+        double reservedSavings = transactions.stream()
+                .filter(t -> "income".equals(t.getType()) && t.isReserved())
+                .mapToDouble(t -> t.getAmount()).sum();
+
+        double totalExpenses = transactions.stream()
+                .filter(t -> "expense".equals(t.getType()))
+                .mapToDouble(t -> t.getAmount()).sum() +
+                transactions.stream()
+                .filter(t -> "income".equals(t.getType()) && t.isReserved())
+                .mapToDouble(t -> t.getAmount()).sum();
+
+        return prompt(totalIncome, reservedSavings, totalExpenses);
+    }
+
+    @Benchmark
+    public String sumOfRollups() {
+        Map<String, Double> totals = new HashMap<>();
+        for (int i = 0; i < rollupRows.size(); i++) {
+            totals.merge(rollupTypes.get(i), rollupRows.get(i)[0], Double::sum);
+        }
+
+        double totalIncome = totals.getOrDefault("income", 0.0);
+        double reservedSavings = totals.getOrDefault("reserved", 0.0);
+        double totalExpenses = totals.getOrDefault("expense", 0.0) + reservedSavings;
+
+        return prompt(totalIncome, reservedSavings, totalExpenses);
+    }
+
+    private static String prompt(double income, double reserved, double expenses) {
+        return """
+User: %s
+Dashboard Summary:
+- Total Income: ₹%.2f
+- Reserved Savings: ₹%.2f
+- Total Expenses: ₹%.2f
+- Total Balance: ₹%.2f
+Instructions: Provide short, actionable, friendly advice based on this data.
+""".formatted("How am I doing?", income, reserved, expenses, income - expenses);
+    }
+}
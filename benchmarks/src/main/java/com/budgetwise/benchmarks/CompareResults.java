@@ -0,0 +1,69 @@
+package com.budgetwise.benchmarks;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Diffs two JMH JSON result files (-rf json) and exits with status 1 when any
+ * benchmark regressed by more than the threshold percentage (default 10).
+ *
+ *   java -cp benchmarks.jar com.budgetwise.benchmarks.CompareResults old.json new.json [threshold]
+ */
+public class CompareResults {
+
+    private record Score(String mode, double value, String unit) {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <candidate.json> [threshold%]");
+            System.exit(2);
+        }
+
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> candidate = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> e : new TreeMap<>(candidate).entrySet()) {
+            Score before = baseline.get(e.getKey());
+            Score after = e.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %12.3f %-8s (new)%n", e.getKey(), after.value(), after.unit());
+                continue;
+            }
+
+            // Throughput: higher is better. Every other mode reports time: lower is better.
+            double change = (after.value() - before.value()) / before.value() * 100;
+            double worse = "thrpt".equals(after.mode()) ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) regressions++;
+
+            System.out.printf("%-70s %12.3f -> %12.3f %-8s %+7.1f%%%s%n",
+                    e.getKey(), before.value(), after.value(), after.unit(), change,
+                    regressed ? "  REGRESSION" : "");
+        }
+
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static Map<String, Score> read(File file) throws Exception {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            run.path("params").fields().forEachRemaining(p ->
+                    key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key.toString(), new Score(
+                    run.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,46 @@
+package com.budgetwise.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.budgetwise.model.Transaction;
+
+/**
+ * Deterministic synthetic ledgers shared by the benchmarks.
+ */
+final class Fixtures {
+
+    static final String USER = "bench@budgetwise.com";
+
+    private static final String[] CATEGORIES = {
+            "Food", "Rent", "Travel", "Shopping", "Bills", "Health", "Salary", "Other"
+    };
+
+    private Fixtures() {}
+
+    // Roughly 30% income, 60% expense, 10% reserved income spread over five years
+    static List<Transaction> ledger(String email, int size, long seed) {
+        Random random = new Random(seed);
+        LocalDate start = LocalDate.now().minusYears(5);
+        List<Transaction> list = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int roll = random.nextInt(10);
+            String type = roll < 3 || roll == 9 ? "income" : "expense";
+            boolean reserved = roll == 9;
+
+            list.add(new Transaction(
+                    start.plusDays(random.nextInt(365 * 5 + 60)),
+                    type,
+                    "Transaction " + i,
+                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    Math.round(random.nextDouble() * 500_000) / 100.0,
+                    "Synthetic row for benchmarking",
+                    email,
+                    reserved));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,65 @@
+package com.budgetwise.benchmarks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.budgetwise.security.JwtProperties;
+import com.budgetwise.security.JwtUtil;
+
+/**
+ * Token generation and per-request validation: the legacy implementation
+ * (fresh key and parser per call, three parses per validation) against the
+ * current JwtUtil (one prebuilt parser, one parse per validation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String USER = "bench@budgetwise.com";
+
+    private LegacyJwtUtil legacy;
+    private JwtUtil current;
+    private String legacyToken;
+    private String currentToken;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacyJwtUtil();
+        current = new JwtUtil(new JwtProperties(
+                "default",
+                Map.of("default", "budgetwiseSuperSecretKeyForJwtGeneration123456"),
+                Duration.ofHours(24)));
+        legacyToken = legacy.generateToken(USER);
+        currentToken = current.generateToken(USER);
+    }
+
+    @Benchmark
+    public String generateLegacy() {
+        return legacy.generateToken(USER);
+    }
+
+    @Benchmark
+    public String generateCurrent() {
+        return current.generateToken(USER);
+    }
+
+    // What JwtAuthFilter used to do: extractUsername, then isTokenValid
+    @Benchmark
+    public boolean validateLegacy() {
+        String username = legacy.extractUsername(legacyToken);
+        return legacy.isTokenValid(legacyToken, username);
+    }
+
+    @Benchmark
+    public boolean validateCurrent() {
+        JwtUtil.VerifiedToken verified = current.verify(currentToken);
+        return USER.equals(verified.subject()) && !verified.isExpired();
+    }
+}
@@ -0,0 +1,66 @@
+package com.budgetwise.benchmarks;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.function.Function;
+
+import io.jsonwebtoken.*;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Verbatim copy of JwtUtil before the single-parse redesign, kept only as
+ * the baseline for {@link JwtBenchmark}.
+ */
+public class LegacyJwtUtil {
+
+    private static final String SECRET =
+            "budgetwiseSuperSecretKeyForJwtGeneration123456";
+
+    private static final long EXPIRATION =
+            1000 * 60 * 60 * 24;
+
+    private Key getSignKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    }
+
+    public String generateToken(String username) {
+        return Jwts.builder()
+                .setSubject(username)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public String extractUsername(String token) {
+        return extractClaim(token, Claims::getSubject);
+    }
+
+    public Date extractExpiration(String token) {
+        return extractClaim(token, Claims::getExpiration);
+    }
+
+    public <T> T extractClaim(String token,
+                              Function<Claims, T> resolver) {
+
+        final Claims claims = extractAllClaims(token);
+        return resolver.apply(claims);
+    }
+
+    private Claims extractAllClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(getSignKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private Boolean isTokenExpired(String token) {
+        return extractExpiration(token).before(new Date());
+    }
+
+    public Boolean isTokenValid(String token, String username) {
+        return extractUsername(token).equals(username)
+                && !isTokenExpired(token);
+    }
+}
@@ -0,0 +1,205 @@
+package com.budgetwise.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.budgetwise.dto.ChatCompletionRequest;
+import com.budgetwise.service.AiResilienceProperties;
+import com.budgetwise.service.OpenRouterClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+/**
+ * Per-call latency of an advisor completion against a local stub provider,
+ * over plain HTTP and over TLS:
+ *
+ *   legacyRestTemplate  the previous hand-formatted body, RestTemplate, readTree
+ *   freshConnection     OpenRouterClient built per call, so every call connects
+ *                       (and handshakes) from scratch
+ *   pooledClient        one shared OpenRouterClient reusing its connection
+ *
+ * The stub answers immediately, so the gap between freshConnection and
+ * pooledClient is the connection and TLS setup each call saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenRouterClientBenchmark {
+
+    private static final String ANSWER =
+            "{\"id\":\"gen-1\",\"model\":\"openai/gpt-4\",\"choices\":[{\"index\":0,"
+                    + "\"message\":{\"role\":\"assistant\",\"content\":\"Save 20% of your income.\"},"
+                    + "\"finish_reason\":\"stop\"}],\"usage\":{\"prompt_tokens\":90,\"completion_tokens\":8}}";
+
+    private static final String PROMPT = """
+User: How can I save more?
+Dashboard Summary:
+- Total Income: ₹85000.00
+- Reserved Savings: ₹5000.00
+- Total Expenses: ₹42000.00
+- Total Balance: ₹43000.00
+Instructions: Provide short, actionable, friendly advice based on this data.
+""";
+
+    private static final AiResilienceProperties LIMITS = new AiResilienceProperties(
+            Duration.ofSeconds(3), Duration.ofSeconds(10), 8, 16, Duration.ofSeconds(1),
+            20, 10, 50, Duration.ofSeconds(10), 80, Duration.ofSeconds(30), 3);
+
+    @Param({"http", "https"})
+    public String scheme;
+
+    private HttpServer stub;
+    private Path keyStoreFile;
+    private SSLContext previousDefault;
+    private String url;
+
+    private ObjectMapper objectMapper;
+    private OpenRouterClient pooled;
+    private RestTemplate restTemplate;
+    private ChatCompletionRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        if ("https".equals(scheme)) {
+            SSLContext ssl = selfSignedContext();
+            HttpsServer https = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+            https.setHttpsConfigurator(new HttpsConfigurator(ssl));
+            stub = https;
+            // Both clients pick up the default context and so trust the stub's certificate
+            previousDefault = SSLContext.getDefault();
+            SSLContext.setDefault(ssl);
+        } else {
+            stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        }
+        stub.setExecutor(Executors.newFixedThreadPool(4));
+        stub.createContext("/chat", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            byte[] body = ANSWER.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+        url = scheme + "://localhost:" + stub.getAddress().getPort() + "/chat";
+
+        objectMapper = new ObjectMapper();
+        pooled = new OpenRouterClient("bench-key", url, objectMapper, WebClient.builder(), LIMITS);
+        restTemplate = new RestTemplate();
+        request = new ChatCompletionRequest("openai/gpt-4",
+                List.of(new ChatCompletionRequest.Message("system", "You are a concise, friendly financial assistant."),
+                        new ChatCompletionRequest.Message("user", PROMPT)),
+                0.7, 285, null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pooled.close();
+        stub.stop(0);
+        if (previousDefault != null) SSLContext.setDefault(previousDefault);
+        if (keyStoreFile != null) Files.deleteIfExists(keyStoreFile);
+    }
+
+    @Benchmark
+    public String pooledClient() {
+        return pooled.complete(request);
+    }
+
+    @Benchmark
+    public String freshConnection() {
+        OpenRouterClient client = new OpenRouterClient("bench-key", url, objectMapper, WebClient.builder(), LIMITS);
+        try {
+            return client.complete(request);
+        } finally {
+            client.close();
+        }
+    }
+
+    // The request path as it was before OpenRouterClient
+    @Benchmark
+    public String legacyRestTemplate() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth("bench-key");
+
+        String requestBody = """
+            {
+              "model": "openai/gpt-4",
+              "messages": [
+                {"role": "system", "content": "You are a concise, friendly financial assistant."},
+                {"role": "user", "content": "%s"}
+              ],
+              "temperature": 0.7,
+              "max_tokens": %d
+            }
+            """.formatted(PROMPT.replace("\"", "\\\""), 285);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                url, new HttpEntity<>(requestBody, headers), String.class);
+
+        return new ObjectMapper().readTree(response.getBody())
+                .path("choices").get(0).path("message").path("content").asText();
+    }
+
+    // keytool ships with every JDK, which saves pulling in a certificate library
+    private SSLContext selfSignedContext() throws Exception {
+        keyStoreFile = Files.createTempFile("openrouter-bench", ".p12");
+        Files.delete(keyStoreFile);
+        char[] password = "changeit".toCharArray();
+
+        Process keytool = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "stub", "-keyalg", "EC", "-groupname", "secp256r1",
+                "-dname", "CN=localhost", "-ext", "SAN=dns:localhost",
+                "-validity", "1", "-storetype", "PKCS12",
+                "-keystore", keyStoreFile.toString(),
+                "-storepass", "changeit", "-keypass", "changeit")
+                .redirectErrorStream(true)
+                .start();
+        keytool.getInputStream().transferTo(OutputStream.nullOutputStream());
+        if (keytool.waitFor() != 0) throw new IllegalStateException("keytool failed");
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keyStoreFile)) {
+            keyStore.load(in, password);
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(keyStore, password);
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(keyStore);
+
+        SSLContext ssl = SSLContext.getInstance("TLS");
+        ssl.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
+        return ssl;
+    }
+}
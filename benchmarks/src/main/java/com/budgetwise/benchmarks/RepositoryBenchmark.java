@@ -0,0 +1,167 @@
+package com.budgetwise.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import com.budgetwise.dto.TransactionFilter;
+import com.budgetwise.dto.TransactionPage;
+import com.budgetwise.dto.TransactionSummary;
+import com.budgetwise.model.Transaction;
+import com.budgetwise.model.TransactionType;
+import com.budgetwise.model.User;
+import com.budgetwise.repository.CategoryDictionary;
+import com.budgetwise.repository.MonthlyRollupRepository;
+import com.budgetwise.repository.TransactionRepository;
+import com.budgetwise.repository.TransactionTombstoneRepository;
+import com.budgetwise.repository.UserIdDirectory;
+import com.budgetwise.repository.UserRepository;
+import com.budgetwise.service.AdvisorResponseCache;
+import com.budgetwise.service.LedgerCache;
+import com.budgetwise.service.LedgerChangeNotifier;
+import com.budgetwise.service.LedgerVersionService;
+import com.budgetwise.service.MonthlyRollupService;
+import com.budgetwise.service.TransactionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Transaction queries against an in-memory H2 database seeded with one
+ * large ledger plus background rows from other users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    // JPA only: no web layer, security filters, mail or scheduled jobs
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan("com.budgetwise.model")
+    @EnableJpaRepositories("com.budgetwise.repository")
+    @Import({CategoryDictionary.class, UserIdDirectory.class}) // used by the entity's attribute converters
+    static class RepositoryContext {}
+
+    // Same ledger as Fixtures.USER, but with an account, so its summary is served from the ledger cache
+    private static final String CACHED_USER = "cached@budgetwise.com";
+
+    @Param({"10000", "50000"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository repository;
+    private TransactionService transactionService;
+
+    @Setup
+    public void setUp() {
+        // Command-line style arguments take precedence over the backend's application.properties
+        context = new SpringApplicationBuilder(RepositoryContext.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN"
+                );
+
+        repository = context.getBean(TransactionRepository.class);
+        MonthlyRollupService rollupService = new MonthlyRollupService(
+                context.getBean(MonthlyRollupRepository.class),
+                repository,
+                context.getBean(PlatformTransactionManager.class),
+                new AdvisorResponseCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(30)));
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        LedgerVersionService ledgerVersions = new LedgerVersionService(userRepository,
+                new LedgerChangeNotifier(new SimpleMeterRegistry(),
+                        Duration.ofMillis(250), Duration.ofSeconds(25), 8));
+        transactionService = new TransactionService(repository, rollupService, ledgerVersions,
+                context.getBean(TransactionTombstoneRepository.class),
+                new LedgerCache(repository, ledgerVersions, context.getBean(PlatformTransactionManager.class),
+                        new SimpleMeterRegistry(), DataSize.ofMegabytes(64), Duration.ofMinutes(30)),
+                context.getBean(CategoryDictionary.class));
+
+        // Rows are stored against user ids, so every owner needs an account first
+        saveUser(userRepository, Fixtures.USER);
+        saveUser(userRepository, CACHED_USER);
+        for (int u = 0; u < 10; u++) {
+            saveUser(userRepository, "other" + u + "@budgetwise.com");
+        }
+        // Only the cached user's version moves; Fixtures.USER stays at 0 and is always read from the database
+        userRepository.bumpLedgerVersions(List.of(CACHED_USER));
+
+        repository.saveAll(Fixtures.ledger(Fixtures.USER, size, 42));
+        repository.saveAll(Fixtures.ledger(CACHED_USER, size, 42));
+        for (int u = 0; u < 10; u++) {
+            repository.saveAll(Fixtures.ledger("other" + u + "@budgetwise.com", size / 10, u));
+        }
+    }
+
+    private static void saveUser(UserRepository userRepository, String email) {
+        User user = new User();
+        user.setUsername(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword("{noop}unused");
+        user.setVerified(true);
+        userRepository.save(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Transaction> findByUserEmail() {
+        return repository.findByUserEmail(Fixtures.USER);
+    }
+
+    @Benchmark
+    public List<Transaction> findExpenses() {
+        return repository.findByUserEmailAndType(Fixtures.USER, TransactionType.EXPENSE);
+    }
+
+    @Benchmark
+    public TransactionSummary summary() {
+        return transactionService.getSummary(Fixtures.USER, null, null, "month");
+    }
+
+    @Benchmark
+    public TransactionSummary cachedSummary() {
+        return transactionService.getSummary(CACHED_USER, null, null, "month");
+    }
+
+    @Benchmark
+    public TransactionPage firstPage() {
+        return transactionService.getPage(Fixtures.USER, null, null, 50);
+    }
+
+    @Benchmark
+    public TransactionPage lastYearPage() {
+        return transactionService.getPage(Fixtures.USER,
+                new TransactionFilter(
+                        LocalDate.now().minusYears(1), null, "expense", null, null, null),
+                null, 50);
+    }
+}
@@ -1,5 +1,46 @@
-import { createContext, useContext, useState } from 'react';
-import axios from 'axios';
+import { createContext, useContext, useEffect, useRef, useState } from 'react';
+import api from '../api';
+
+const PAGE_SIZE = 50;
+const RECONNECT_DELAY_MS = 5000;
+
+// Reads /api/transactions/events and hands each named event to onEvent.
+// Like the advisor stream, it goes through fetch so the Authorization header can be sent.
+const readLedgerEvents = async (token, { signal, onEvent }) => {
+  const res = await fetch(`${api.defaults.baseURL}/api/transactions/events`, {
+    headers: { Accept: 'text/event-stream', Authorization: `Bearer ${token}` },
+    signal,
+  });
+  if (!res.ok || !res.body) throw new Error(`Ledger events failed with ${res.status}`);
+
+  const reader = res.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+
+  try {
+    while (true) {
+      const { value, done } = await reader.read();
+      if (done) return;
+      buffer += decoder.decode(value, { stream: true });
+
+      let boundary;
+      while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+        const raw = buffer.slice(0, boundary);
+        buffer = buffer.slice(boundary + 2);
+
+        let event = 'message';
+        const data = [];
+        raw.split('\n').forEach((line) => {
+          if (line.startsWith('event:')) event = line.slice(6).trim();
+          else if (line.startsWith('data:')) data.push(line.slice(line.startsWith('data: ') ? 6 : 5));
+        });
+        if (data.length) await onEvent(event, JSON.parse(data.join('\n')));
+      }
+    }
+  } finally {
+    reader.cancel().catch(() => {});
+  }
+};
 
 const TransactionsContext = createContext();
 
@@ -7,20 +48,23 @@ export const TransactionsProvider = ({ children }) => {
   const [transactions, setTransactions] = useState([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [filters, setFilters] = useState({});
 
-  const fetchTransactions = async () => {
+  // Loads one keyset page; pass a cursor to append, omit it to start over
+  const loadPage = async (cursor, activeFilters) => {
     setLoading(true);
     setError(null);
 
     try {
-      const res = await axios.get(
-        'http://localhost:8080/api/transactions',
-        {
-          withCredentials: true, // Important for session cookie
-        }
-      );
+      const res = await api.get('/api/transactions/page', {
+        params: { ...activeFilters, cursor, limit: PAGE_SIZE },
+      });
 
-      setTransactions(res.data);
+      const { items, nextCursor: next } = res.data;
+
+      setTransactions(prev => (cursor ? [...prev, ...items] : items));
+      setNextCursor(next);
 
     } catch (err) {
       if (err.response?.status === 401) {
@@ -39,8 +83,84 @@ export const TransactionsProvider = ({ children }) => {
     }
   };
 
+  const fetchTransactions = async (newFilters = filters) => {
+    setFilters(newFilters);
+    await loadPage(undefined, newFilters);
+  };
+
+  const fetchMoreTransactions = async () => {
+    if (!nextCursor || loading) return;
+    await loadPage(nextCursor, filters);
+  };
+
+  // Keeps the loaded rows current while the app is open: the server says when
+  // the ledger moved, and the delta sync says what changed
+  const filtersRef = useRef(filters);
+  filtersRef.current = filters;
+
+  useEffect(() => {
+    const controller = new AbortController();
+    let cursor = null;
+    let version = 0;
+
+    const applyChanges = async () => {
+      const res = await api.get('/api/transactions/changes', { params: { since: cursor } });
+      const { upserts, deleted } = res.data;
+      cursor = res.data.cursor;
+
+      const removed = new Set(deleted);
+      const changed = new Map(upserts.map((t) => [t.id, t]));
+      let unseen = changed.size > 0 && Object.keys(filtersRef.current).length > 0;
+
+      setTransactions((prev) => {
+        const known = new Set(prev.map((t) => t.id));
+        if (upserts.some((t) => !known.has(t.id))) unseen = true;
+        return prev
+          .filter((t) => !removed.has(t.id))
+          .map((t) => changed.get(t.id) ?? t);
+      });
+      // New rows or filtered views need the server to place them
+      if (unseen) await loadPage(undefined, filtersRef.current);
+    };
+
+    const onEvent = async (event, data) => {
+      if (event === 'ready') {
+        // Missed events while disconnected are covered by pulling from the old cursor
+        if (cursor && data.version > version) await applyChanges();
+        else cursor = data.cursor;
+        version = data.version;
+      } else if (event === 'ledger' && data.version > version) {
+        version = data.version;
+        await applyChanges();
+      }
+    };
+
+    const listen = async () => {
+      while (!controller.signal.aborted) {
+        const token = localStorage.getItem('token');
+        if (token) {
+          try {
+            await readLedgerEvents(token, { signal: controller.signal, onEvent });
+          } catch (err) {
+            if (controller.signal.aborted) return;
+            // Too far behind for a delta: start over from the first page
+            if (err.response?.status === 410) {
+              cursor = null;
+              await loadPage(undefined, filtersRef.current);
+            }
+          }
+        }
+        await new Promise((resolve) => setTimeout(resolve, RECONNECT_DELAY_MS));
+      }
+    };
+
+    listen();
+    return () => controller.abort();
+  }, []);
+
   const clearTransactions = () => {
     setTransactions([]);
+    setNextCursor(null);
   };
 
   return (
@@ -49,6 +169,8 @@ export const TransactionsProvider = ({ children }) => {
         transactions,
         setTransactions,
         fetchTransactions,
+        fetchMoreTransactions,
+        hasMore: nextCursor !== null,
         clearTransactions,
         loading,
         error,
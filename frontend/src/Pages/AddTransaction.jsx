@@ -23,6 +23,8 @@ const AddTransaction = () => {
     description: editingTransaction?.description || '',
     reserved: editingTransaction?.reserved || false,
     id: editingTransaction?.id || null,
+    // Sent back on save so an edit made meanwhile on another device isn't overwritten
+    version: editingTransaction?.version ?? null,
   });
 
   const categories = [
@@ -87,6 +89,10 @@ const AddTransaction = () => {
     } catch (err) {
       console.error("FULL ERROR:", err);
       console.error("SERVER RESPONSE:", err.response);
+      if (err.response?.status === 409) {
+        alert("This transaction was changed on another device. Reopen it to see the latest version.");
+        return;
+      }
       alert(err.response?.data?.message || "Failed to save transaction");
     }
   };
@@ -1,7 +1,50 @@
 import React, { useState, useEffect, useRef } from 'react';
 import Sidebar from '../Components/Sidebar';
 import { Send } from 'lucide-react';
-import { useTransactions } from '../Context/TransactionsContext';
+import api from '../api';
+
+// Reads the Server-Sent Events from /api/ai/ask/stream and hands each token to onToken.
+// EventSource cannot send the Authorization header, so the stream is read through fetch.
+const streamAdvice = async (question, { signal, onToken }) => {
+  const res = await fetch(`${api.defaults.baseURL}/api/ai/ask/stream`, {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/json',
+      Accept: 'text/event-stream',
+      Authorization: `Bearer ${localStorage.getItem('token')}`,
+    },
+    body: JSON.stringify({ question }),
+    signal,
+  });
+  if (!res.ok || !res.body) throw new Error(`AI stream failed with ${res.status}`);
+
+  const reader = res.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+
+  while (true) {
+    const { value, done } = await reader.read();
+    if (done) return;
+    buffer += decoder.decode(value, { stream: true });
+
+    let boundary;
+    while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+      const raw = buffer.slice(0, boundary);
+      buffer = buffer.slice(boundary + 2);
+
+      let event = 'message';
+      const data = [];
+      raw.split('\n').forEach((line) => {
+        if (line.startsWith('event:')) event = line.slice(6).trim();
+        else if (line.startsWith('data:')) data.push(line.slice(line.startsWith('data: ') ? 6 : 5));
+      });
+
+      if (event === 'done') return;
+      if (event === 'error') throw new Error(data.join('\n'));
+      if (event === 'token') onToken(data.join('\n'));
+    }
+  }
+};
 
 const Advisor = () => {
   const [messages, setMessages] = useState([
@@ -12,18 +55,56 @@ const Advisor = () => {
   ]);
   const [input, setInput] = useState('');
   const [loading, setLoading] = useState(false);
-  const { transactions, fetchTransactions } = useTransactions();
+  const [summary, setSummary] = useState(null);
 
   const chatEndRef = useRef(null);
+  const streamRef = useRef(null);
+
+  // Leaving the page closes the stream, which cancels the provider call on the server
+  useEffect(() => () => streamRef.current?.abort(), []);
 
   useEffect(() => {
-    fetchTransactions();
+    api.get('/api/transactions/summary', { params: { granularity: 'month' } })
+      .then((res) => setSummary(res.data))
+      .catch((err) => console.error(err));
   }, []);
 
   useEffect(() => {
     chatEndRef.current?.scrollIntoView({ behavior: 'smooth' });
   }, [messages]);
 
+  // Anything the quick answers don't cover goes to the AI, rendered as it streams in
+  const streamReply = async (question, fallback) => {
+    streamRef.current?.abort();
+    const controller = new AbortController();
+    streamRef.current = controller;
+
+    const id = Date.now();
+    setMessages((prev) => [...prev, { id, from: 'bot', text: '' }]);
+    const append = (token) =>
+      setMessages((prev) =>
+        prev.map((msg) => (msg.id === id ? { ...msg, text: msg.text + token } : msg))
+      );
+
+    let received = false;
+    try {
+      await streamAdvice(question, {
+        signal: controller.signal,
+        onToken: (token) => {
+          received = true;
+          setLoading(false);
+          append(token);
+        },
+      });
+    } catch (err) {
+      if (controller.signal.aborted) return;
+      console.error(err);
+      if (!received) append(fallback);
+    } finally {
+      if (streamRef.current === controller) streamRef.current = null;
+    }
+  };
+
   const handleSend = async () => {
     if (!input.trim()) return;
 
@@ -42,38 +123,16 @@ const Advisor = () => {
     setLoading(true);
 
     try {
-      const today = new Date().toISOString().split('T')[0];
-
-      const normalIncome = transactions.filter(
-        (t) => t.type === 'income' && !t.reserved
-      );
-      const reservedFuture = transactions.filter(
-        (t) => t.type === 'income' && t.reserved && t.date > today
-      );
-      const maturedReserved = transactions.filter(
-        (t) => t.type === 'income' && t.reserved && t.date <= today
-      );
-      const normalExpense = transactions.filter((t) => t.type === 'expense');
-
-      const totalIncome = normalIncome.reduce(
-        (sum, t) => sum + Number(t.amount || 0),
-        0
-      );
-      const reservedSavings = reservedFuture.reduce(
-        (sum, t) => sum + Number(t.amount || 0),
-        0
-      );
-      const totalExpenses =
-        normalExpense.reduce((sum, t) => sum + Number(t.amount || 0), 0) +
-        maturedReserved.reduce((sum, t) => sum + Number(t.amount || 0), 0);
+      const totalIncome = summary?.totalIncome || 0;
+      const reservedSavings = summary?.reservedSavings || 0;
+      const totalExpenses = summary?.totalExpenses || 0;
       const totalBalance = totalIncome - totalExpenses;
 
       const lastMonth = new Date();
       lastMonth.setMonth(lastMonth.getMonth() - 1);
       const lastMonthStr = lastMonth.toISOString().slice(0, 7);
-      const lastMonthExpenses = transactions
-        .filter((t) => t.type === 'expense' && t.date.startsWith(lastMonthStr))
-        .reduce((sum, t) => sum + Number(t.amount || 0), 0);
+      const lastMonthExpenses =
+        (summary?.periods || []).find((p) => p.period === lastMonthStr)?.expenses || 0;
       const predictedNextMonth =
         Math.round(lastMonthExpenses * 1.1) || totalExpenses;
 
@@ -81,21 +140,21 @@ const Advisor = () => {
       const suggestedInvest = Math.round((totalBalance - suggestedSavings) * 0.5);
       const safeSpending = totalBalance - suggestedSavings - suggestedInvest;
 
-      const categoryTotals = {};
-      normalExpense.forEach(t => {
-        categoryTotals[t.category] = (categoryTotals[t.category] || 0) + Number(t.amount);
-      });
-      const highestCategory = Object.entries(categoryTotals).sort((a,b) => b[1]-a[1])[0];
+      const highestCategory = (summary?.categories || [])
+        .map((c) => [c.category, c.total])
+        .sort((a,b) => b[1]-a[1])[0];
 
       const question = input.toLowerCase();
-      let aiResponse = `- Total Income = ₹${totalIncome}
+      const summaryText = `- Total Income = ₹${totalIncome}
 - Total Expenses = ₹${totalExpenses}
 - Total Reserved = ₹${reservedSavings}
 - Total Balance = ₹${totalBalance}
 - Next month, expected expenses ≈ ₹${predictedNextMonth}
 - Advice: Keep spending under control, save ₹${suggestedSavings} next month, invest ₹${suggestedInvest}, and spend safely ₹${safeSpending}.`;
 
-      if (question.includes('summary')) aiResponse = aiResponse;
+      let aiResponse = null;
+
+      if (question.includes('summary')) aiResponse = summaryText;
       else if (question.includes('total expense')) aiResponse = `- Total Expenses = ₹${totalExpenses}`;
       else if (question.includes('total income')) aiResponse = `- Total Income = ₹${totalIncome}`;
       else if (question.includes('total reserved')) aiResponse = `- Total Reserved = ₹${reservedSavings}`;
@@ -112,7 +171,11 @@ const Advisor = () => {
 - Suggested Savings = ₹${suggestedSavings} 
 - Remaining safe spending = ₹${safeSpending}`;
 
-      setMessages((prev) => [...prev, { from: 'bot', text: aiResponse }]);
+      if (aiResponse !== null) {
+        setMessages((prev) => [...prev, { from: 'bot', text: aiResponse }]);
+      } else {
+        await streamReply(input, summaryText);
+      }
     } catch (err) {
       console.error(err);
       setMessages((prev) => [
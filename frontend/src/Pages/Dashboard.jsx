@@ -37,8 +37,9 @@ const Dashboard = () => {
   const navigate = useNavigate();
   const today = new Date().toISOString().split("T")[0];
 
-  const { transactions, setTransactions } = useTransactions();
+  const { transactions, fetchTransactions } = useTransactions();
   const [user, setUser] = useState(null);
+  const [summary, setSummary] = useState(null);
   const [loading, setLoading] = useState(true);
   const [selectedMonth, setSelectedMonth] = useState(
     new Date().getMonth() + 1
@@ -66,14 +67,18 @@ const Dashboard = () => {
 
         setUser(userRes.data || {});
 
-        const txRes = await axios.get(
-          "http://localhost:8080/api/transactions",
+        const summaryRes = await axios.get(
+          "http://localhost:8080/api/transactions/summary",
           {
             headers: { Authorization: `Bearer ${token}` },
+            params: { granularity: "month" },
           }
         );
 
-        setTransactions(txRes.data || []);
+        setSummary(summaryRes.data || null);
+
+        // Table shows the most recent page; totals come from the summary
+        await fetchTransactions();
         setLoading(false);
       } catch (err) {
         console.error("Session expired:", err?.response?.data || err.message);
@@ -83,7 +88,7 @@ const Dashboard = () => {
     };
 
     fetchUserAndTransactions();
-  }, [navigate, setTransactions]);
+  }, [navigate]);
 
   const handleLogout = () => {
     localStorage.removeItem("token");
@@ -99,56 +104,15 @@ const Dashboard = () => {
   }
 
   // ================= CALCULATIONS =================
+  // Totals and chart buckets come pre-aggregated from /api/transactions/summary
 
-  const reservedFuture = transactions.filter(
-    (t) => t.type === "income" && t.reserved && t.date > today
-  );
-
-  const maturedReserved = transactions.filter(
-    (t) => t.type === "income" && t.reserved && t.date <= today
-  );
-
-  const normalIncome = transactions.filter(
-    (t) => t.type === "income" && !t.reserved
-  );
-
-  const normalExpense = transactions.filter(
-    (t) => t.type === "expense"
-  );
-
-  const totalIncome = normalIncome.reduce(
-    (sum, t) => sum + Number(t.amount || 0),
-    0
-  );
-
-  const reservedSavings = reservedFuture.reduce(
-    (sum, t) => sum + Number(t.amount || 0),
-    0
-  );
-
-  const totalExpenses =
-    normalExpense.reduce(
-      (sum, t) => sum + Number(t.amount || 0),
-      0
-    ) +
-    maturedReserved.reduce(
-      (sum, t) => sum + Number(t.amount || 0),
-      0
-    );
+  const totalIncome = summary?.totalIncome || 0;
+  const totalExpenses = summary?.totalExpenses || 0;
+  const reservedSavings = summary?.reservedSavings || 0;
+  const totalBalance = summary?.totalBalance || 0;
 
-  const totalBalance = Math.max(totalIncome - totalExpenses, 0);
-
-  const categoryTotals = [...normalExpense, ...maturedReserved].reduce(
-    (acc, t) => {
-      acc[t.category] =
-        (acc[t.category] || 0) + Number(t.amount || 0);
-      return acc;
-    },
-    {}
-  );
-
-  const pieCategoryData = Object.entries(categoryTotals).map(
-    ([name, value]) => ({ name, value })
+  const pieCategoryData = (summary?.categories || []).map(
+    (c) => ({ name: c.category, value: c.total })
   );
 
   const pieSummaryData = [
@@ -157,36 +121,15 @@ const Dashboard = () => {
     { name: "Balance", value: totalBalance },
   ];
 
-  const filteredTransactions = transactions.filter((t) => {
-    const date = new Date(t.date);
-    return (
-      date.getFullYear() === selectedYear &&
-      date.getMonth() + 1 === selectedMonth
-    );
-  });
+  const periodTotals = (summary?.periods || []).reduce((acc, p) => {
+    acc[p.period] = p;
+    return acc;
+  }, {});
+
+  const periodKey = (year, month) =>
+    `${year}-${String(month).padStart(2, "0")}`;
 
-  const monthlyIncome = filteredTransactions
-    .filter(
-      (t) =>
-        t.type === "income" &&
-        (!t.reserved || t.date <= today)
-    )
-    .reduce((sum, t) => sum + Number(t.amount || 0), 0);
-
-  const monthlyExpenses =
-    filteredTransactions
-      .filter((t) => t.type === "expense")
-      .reduce((sum, t) => sum + Number(t.amount || 0), 0) +
-    filteredTransactions
-      .filter(
-        (t) =>
-          t.type === "income" &&
-          t.reserved &&
-          t.date <= today
-      )
-      .reduce((sum, t) => sum + Number(t.amount || 0), 0);
-
-  const monthlyBalance = monthlyIncome - monthlyExpenses;
+  const selectedPeriod = periodTotals[periodKey(selectedYear, selectedMonth)];
 
   const monthlyBarData = [
     {
@@ -194,54 +137,22 @@ const Dashboard = () => {
         "default",
         { month: "long" }
       ),
-      Income: monthlyIncome,
-      Expenses: monthlyExpenses,
-      Balance: monthlyBalance < 0 ? 0 : monthlyBalance,
+      Income: selectedPeriod?.income || 0,
+      Expenses: selectedPeriod?.expenses || 0,
+      Balance: selectedPeriod?.balance || 0,
     },
   ];
 
   const yearlyData = Array.from({ length: 12 }, (_, i) => {
-    const month = i + 1;
-
-    const income = transactions
-      .filter(
-        (t) =>
-          t.type === "income" &&
-          (!t.reserved || t.date <= today) &&
-          new Date(t.date).getFullYear() === selectedYear &&
-          new Date(t.date).getMonth() + 1 === month
-      )
-      .reduce((sum, t) => sum + Number(t.amount || 0), 0);
-
-    const expense =
-      transactions
-        .filter(
-          (t) =>
-            t.type === "expense" &&
-            new Date(t.date).getFullYear() === selectedYear &&
-            new Date(t.date).getMonth() + 1 === month
-        )
-        .reduce((sum, t) => sum + Number(t.amount || 0), 0) +
-      transactions
-        .filter(
-          (t) =>
-            t.type === "income" &&
-            t.reserved &&
-            t.date <= today &&
-            new Date(t.date).getFullYear() === selectedYear &&
-            new Date(t.date).getMonth() + 1 === month
-        )
-        .reduce((sum, t) => sum + Number(t.amount || 0), 0);
-
-    const balance = income - expense;
+    const period = periodTotals[periodKey(selectedYear, i + 1)];
 
     return {
       month: new Date(0, i).toLocaleString("default", {
         month: "short",
       }),
-      Income: income,
-      Expenses: expense,
-      Balance: balance < 0 ? 0 : balance,
+      Income: period?.income || 0,
+      Expenses: period?.expenses || 0,
+      Balance: period?.balance || 0,
     };
   });
 
@@ -374,7 +285,7 @@ const Dashboard = () => {
 
         {/* Transactions Table */}
         <div className="bg-white p-6 rounded-3xl shadow-xl overflow-x-auto">
-          <h3 className="text-xl font-semibold mb-4">Transactions</h3>
+          <h3 className="text-xl font-semibold mb-4">Recent Transactions</h3>
           <table className="w-full text-left border-collapse">
             <thead className="bg-indigo-50">
               <tr>
@@ -100,6 +100,11 @@ const Login = () => {
     } else if (err.response?.status === 403) {
       alert('Email not verified. Please verify your email first.');
       navigate('/verify-email', { state: { email: formData.email } });
+    } else if (err.response?.status === 503) {
+      alert('The server is busy. Please try again in a moment.');
+    } else if (err.response?.status === 429) {
+      const seconds = Number(err.response.headers?.['retry-after']) || 60;
+      alert(`Too many login attempts. Please try again in ${seconds} seconds.`);
     } else {
       alert('Something went wrong');
     }
@@ -1,12 +1,21 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import Sidebar from '../Components/Sidebar';
 import api from '../api';
+import { useTransactions } from '../Context/TransactionsContext';
 
 const Transactions = () => {
   const navigate = useNavigate();
-  const [transactions, setTransactions] = useState([]);
+  const {
+    transactions,
+    setTransactions,
+    fetchTransactions,
+    fetchMoreTransactions,
+    hasMore,
+    loading,
+  } = useTransactions();
   const [user, setUser] = useState(null);
+  const sentinelRef = useRef(null);
 
   const today = new Date().toISOString().split('T')[0];
 
@@ -24,8 +33,8 @@ const Transactions = () => {
         const userRes = await api.get('/api/auth/me');
         setUser(userRes.data);
 
-        const txRes = await api.get('/api/transactions');
-        setTransactions(txRes.data);
+        // First page only; more rows are loaded as the user scrolls
+        await fetchTransactions();
 
       } catch (err) {
         console.error(err);
@@ -36,19 +45,35 @@ const Transactions = () => {
     fetchUserAndTransactions();
   }, [navigate]);
 
+  // Load the next page when the bottom of the table scrolls into view
+  useEffect(() => {
+    const sentinel = sentinelRef.current;
+    if (!sentinel || !hasMore) return;
+
+    const observer = new IntersectionObserver(entries => {
+      if (entries[0].isIntersecting) fetchMoreTransactions();
+    });
+
+    observer.observe(sentinel);
+    return () => observer.disconnect();
+  });
+
   const handleEdit = (tx) => {
     navigate('/add-transaction', { state: { transaction: tx } });
   };
 
-  const handleDelete = async (id) => {
+  const handleDelete = async (tx) => {
     if (!window.confirm('Are you sure you want to delete this transaction?')) return;
 
     try {
       // ✅ Use api instance (token auto added)
-      await api.delete(`/api/transactions/${id}`);
+      await api.delete(`/api/transactions/${tx.id}`, { params: { version: tx.version } });
 
-      setTransactions(transactions.filter(t => t.id !== id));
+      setTransactions(transactions.filter(t => t.id !== tx.id));
     } catch (err) {
+      if (err.response?.status === 409) {
+        alert('This transaction was changed on another device. Check it again before deleting.');
+      }
       console.error(err);
     }
   };
@@ -117,7 +142,7 @@ const Transactions = () => {
                         Edit
                       </button>
                       <button
-                        onClick={() => handleDelete(tx.id)}
+                        onClick={() => handleDelete(tx)}
                         className="bg-red-600 text-white px-4 py-2 rounded-xl"
                       >
                         Delete
@@ -128,6 +153,10 @@ const Transactions = () => {
               </tbody>
             </table>
           )}
+          <div ref={sentinelRef} />
+          {loading && transactions.length > 0 && (
+            <p className="text-center text-gray-500 mt-4">Loading more...</p>
+          )}
         </div>
       </main>
     </div>